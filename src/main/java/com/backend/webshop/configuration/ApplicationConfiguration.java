@@ -1,20 +1,130 @@
 package com.backend.webshop.configuration;
 
+import com.backend.webshop.service.CachingRateService;
+import com.backend.webshop.service.CircuitBreaker;
+import com.backend.webshop.service.HnbRateServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.Data;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "app.rate-api")
 public class ApplicationConfiguration {
 
-    private String eurUrl;
+    private String url;
+
+    private Duration cacheTtl = Duration.ofHours(1);
+
+    private ZoneId zone = ZoneId.of("Europe/Zagreb");
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(3);
+
+    private CircuitBreakerProperties circuitBreaker = new CircuitBreakerProperties();
+
+    private HttpClientProperties httpClient = new HttpClientProperties();
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public CloseableHttpClient rateHttpClient() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+                httpClient.getConnectionTtl().toMillis(), TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(httpClient.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(httpClient.getMaxPerRoute());
+        connectionManager.setValidateAfterInactivity((int) httpClient.getValidateAfterInactivity().toMillis());
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setSocketTimeout((int) readTimeout.toMillis())
+                .setConnectionRequestTimeout((int) httpClient.getConnectionRequestTimeout().toMillis())
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(httpClient.getIdleEviction().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder, CloseableHttpClient rateHttpClient) {
+        return restTemplateBuilder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(rateHttpClient))
+                .setConnectTimeout(connectTimeout)
+                .setReadTimeout(readTimeout)
+                .build();
+    }
+
+    @Bean
+    @Primary
+    public Clock clock() {
+        return Clock.systemUTC();
+    }
+
+    @Bean
+    public Clock rateClock() {
+        return Clock.system(zone);
+    }
+
+    @Bean
+    public CircuitBreaker rateClientCircuitBreaker(MeterRegistry meterRegistry,
+                                                   @Qualifier("rateClock") Clock rateClock) {
+        return new CircuitBreaker("hnb-rate-api", circuitBreaker.getFailureThreshold(),
+                circuitBreaker.getOpenDuration(), meterRegistry, rateClock);
+    }
+
+    @Bean
+    @Primary
+    public CachingRateService cachingRateService(HnbRateServiceImpl hnbRateService, MeterRegistry meterRegistry,
+                                                 @Qualifier("rateClock") Clock rateClock) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("rate-refresh-");
+        threadFactory.setDaemon(true);
+
+        return new CachingRateService(hnbRateService, cacheTtl, meterRegistry,
+                Executors.newSingleThreadExecutor(threadFactory), rateClock);
+    }
+
+    @Data
+    public static class HttpClientProperties {
+
+        private int maxTotal = 20;
+
+        private int maxPerRoute = 10;
+
+        private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+
+        private Duration idleEviction = Duration.ofSeconds(30);
+
+        private Duration connectionTtl = Duration.ofMinutes(5);
+
+        private Duration validateAfterInactivity = Duration.ofSeconds(2);
+    }
+
+    @Data
+    public static class CircuitBreakerProperties {
+
+        private int failureThreshold = 5;
+
+        private Duration openDuration = Duration.ofSeconds(30);
     }
 }
@@ -0,0 +1,41 @@
+package com.backend.webshop.configuration;
+
+import com.backend.webshop.repository.IdempotencyKeyRepository;
+import com.backend.webshop.service.IdempotencyKeyStore;
+import com.backend.webshop.service.InMemoryIdempotencyKeyStore;
+import com.backend.webshop.service.JpaIdempotencyKeyStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.idempotency")
+public class IdempotencyConfiguration {
+
+    private Store store = Store.MEMORY;
+
+    private int maxEntries = 10_000;
+
+    private Duration ttl = Duration.ofHours(24);
+
+    @Bean
+    public IdempotencyKeyStore idempotencyKeyStore(IdempotencyKeyRepository idempotencyKeyRepository,
+                                                   ObjectMapper objectMapper, Clock clock) {
+        if (store == Store.DATABASE) {
+            return new JpaIdempotencyKeyStore(idempotencyKeyRepository, objectMapper, ttl, clock);
+        }
+
+        return new InMemoryIdempotencyKeyStore(maxEntries, ttl, clock);
+    }
+
+    public enum Store {
+        MEMORY,
+        DATABASE
+    }
+}
@@ -0,0 +1,64 @@
+package com.backend.webshop.configuration;
+
+import lombok.Data;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.second-level-cache")
+public class SecondLevelCacheConfiguration {
+
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    // Hibernate owns the cache manager and closes it together with the session factory
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, createCacheManager());
+    }
+
+    private CacheManager createCacheManager() {
+        ConfigurationBuilder configuration = ConfigurationBuilder.newConfigurationBuilder();
+        for (Map.Entry<String, Region> region : regions.entrySet()) {
+            configuration = configuration.withCache(region.getKey(), CacheConfigurationBuilder
+                    .newCacheConfigurationBuilder(Object.class, Object.class,
+                            ResourcePoolsBuilder.heap(region.getValue().getMaxEntries()))
+                    .withExpiry(region.getValue().getTtl() == null
+                            ? ExpiryPolicyBuilder.noExpiration()
+                            : ExpiryPolicyBuilder.timeToLiveExpiration(region.getValue().getTtl()))
+                    .build());
+        }
+
+        EhcacheCachingProvider cachingProvider =
+                (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+
+        // Each application context gets a manager of its own instead of the provider's shared default
+        return cachingProvider.getCacheManager(URI.create("urn:webshop:second-level-cache:" + UUID.randomUUID()),
+                configuration.build());
+    }
+
+    @Data
+    public static class Region {
+
+        private long maxEntries = 1_000;
+
+        // No expiry when unset
+        private Duration ttl;
+    }
+}
@@ -0,0 +1,39 @@
+package com.backend.webshop.configuration;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class SqlMetricsConfiguration {
+
+    @Bean
+    public static BeanPostProcessor sqlStatementDataSourcePostProcessor(Environment environment) {
+        SqlStatementListener listener = new SqlStatementListener();
+        // Proxying result sets intercepts every next() call, so rows read are only counted on demand
+        boolean countRowsRead = environment.getProperty("app.sql-metrics.count-rows-read", Boolean.class, false);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof ProxyDataSource)) {
+                    ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create((DataSource) bean)
+                            .name(beanName)
+                            .listener(listener);
+                    if (countRowsRead) {
+                        builder.methodListener(listener).proxyResultSet();
+                    }
+
+                    return builder.build();
+                }
+
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,186 @@
+package com.backend.webshop.configuration;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String ROWS_HEADER = "X-SQL-Rows";
+    public static final String TIME_HEADER = "X-SQL-Time-Ms";
+
+    private final long statementBudget;
+    private final String budgetPathPrefix;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public SqlStatementFilter(@Value("${app.sql-metrics.statement-budget:10}") long statementBudget,
+                              @Value("${app.sql-metrics.budget-path-prefix:/api/v1/}") String budgetPathPrefix,
+                              ObjectProvider<MeterRegistry> meterRegistry) {
+        this.statementBudget = statementBudget;
+        this.budgetPathPrefix = budgetPathPrefix;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementStatistics statistics = SqlStatementStatistics.start();
+        StatisticsHeaderResponseWrapper responseWrapper =
+                new StatisticsHeaderResponseWrapper(request, response, statistics);
+
+        try {
+            filterChain.doFilter(request, responseWrapper);
+        } finally {
+            SqlStatementStatistics.stop();
+            // Statements of an async request run on another thread and are not counted, so nothing is published
+            if (!request.isAsyncStarted()) {
+                responseWrapper.writeHeaders();
+                record(request, statistics);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+
+        meterRegistry.ifAvailable(registry -> {
+            DistributionSummary.builder("webshop.sql.statements").tag("uri", uri).register(registry)
+                    .record(statistics.getStatements());
+            DistributionSummary.builder("webshop.sql.rows").tag("uri", uri).register(registry)
+                    .record(statistics.getRows());
+            Timer.builder("webshop.sql.time").tag("uri", uri).register(registry)
+                    .record(statistics.getElapsedMillis(), TimeUnit.MILLISECONDS);
+        });
+
+        if (statistics.getStatements() > statementBudget && request.getRequestURI().startsWith(budgetPathPrefix)) {
+            log.warn("{} {} executed {} SQL statements ({} rows, {} ms), statement budget is {}",
+                    request.getMethod(), uri, statistics.getStatements(), statistics.getRows(),
+                    statistics.getElapsedMillis(), statementBudget);
+        }
+    }
+
+    // Headers must be in place before the body is written and the response is committed
+    private static class StatisticsHeaderResponseWrapper extends HttpServletResponseWrapper {
+
+        private final HttpServletRequest request;
+        private final SqlStatementStatistics statistics;
+        private boolean headersWritten;
+        private ServletOutputStream outputStream;
+
+        private StatisticsHeaderResponseWrapper(HttpServletRequest request, HttpServletResponse response,
+                                                SqlStatementStatistics statistics) {
+            super(response);
+            this.request = request;
+            this.statistics = statistics;
+        }
+
+        // A streaming body takes the stream up front and only writes to it after async processing has started
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new HeaderWritingOutputStream(super.getOutputStream());
+            }
+
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        private void writeHeaders() {
+            if (headersWritten || isCommitted() || request.isAsyncStarted()) {
+                return;
+            }
+
+            headersWritten = true;
+            setHeader(STATEMENTS_HEADER, String.valueOf(statistics.getStatements()));
+            setHeader(ROWS_HEADER, String.valueOf(statistics.getRows()));
+            setHeader(TIME_HEADER, String.valueOf(statistics.getElapsedMillis()));
+        }
+
+        private class HeaderWritingOutputStream extends ServletOutputStream {
+
+            private final ServletOutputStream delegate;
+
+            private HeaderWritingOutputStream(ServletOutputStream delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                writeHeaders();
+                delegate.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                writeHeaders();
+                delegate.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                writeHeaders();
+                delegate.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                writeHeaders();
+                delegate.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return delegate.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                delegate.setWriteListener(writeListener);
+            }
+        }
+    }
+}
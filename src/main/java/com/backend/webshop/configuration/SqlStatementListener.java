@@ -0,0 +1,55 @@
+package com.backend.webshop.configuration;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+public class SqlStatementListener implements QueryExecutionListener, MethodExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo executionInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    // One call per execute/executeBatch, so a JDBC batch counts as a single round-trip
+    @Override
+    public void afterQuery(ExecutionInfo executionInfo, List<QueryInfo> queryInfoList) {
+        SqlStatementStatistics.current().ifPresent(statistics -> {
+            statistics.addStatement(executionInfo.getElapsedTime());
+            statistics.addRows(countUpdatedRows(executionInfo.getResult()));
+        });
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    // Rows read are counted as the application consumes them from the result set
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            SqlStatementStatistics.current().ifPresent(statistics -> statistics.addRows(1));
+        }
+    }
+
+    private long countUpdatedRows(Object result) {
+        if (result instanceof Integer) {
+            return Math.max((Integer) result, 0);
+        }
+
+        long rows = 0;
+        if (result instanceof int[]) {
+            for (int updated : (int[]) result) {
+                rows += Math.max(updated, 0);
+            }
+        }
+
+        return rows;
+    }
+}
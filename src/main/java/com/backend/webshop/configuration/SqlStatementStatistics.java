@@ -0,0 +1,40 @@
+package com.backend.webshop.configuration;
+
+import lombok.Getter;
+
+import java.util.Optional;
+
+@Getter
+public class SqlStatementStatistics {
+
+    private static final ThreadLocal<SqlStatementStatistics> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long rows;
+    private long elapsedMillis;
+
+    public static SqlStatementStatistics start() {
+        SqlStatementStatistics statistics = new SqlStatementStatistics();
+        CURRENT.set(statistics);
+
+        return statistics;
+    }
+
+    // Only threads serving a request collect statistics, background jobs are not attributed to anyone
+    public static Optional<SqlStatementStatistics> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    void addStatement(long elapsedMillis) {
+        this.statements++;
+        this.elapsedMillis += elapsedMillis;
+    }
+
+    void addRows(long rows) {
+        this.rows += rows;
+    }
+}
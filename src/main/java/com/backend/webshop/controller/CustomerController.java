@@ -2,7 +2,9 @@ package com.backend.webshop.controller;
 
 import com.backend.webshop.controller.request.CustomerRequest;
 import com.backend.webshop.controller.response.CustomerResponse;
+import com.backend.webshop.controller.response.OrderPageResponse;
 import com.backend.webshop.service.CustomerService;
+import com.backend.webshop.service.OrderResponseService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
@@ -15,12 +17,21 @@ import javax.validation.Valid;
 public class CustomerController {
 
     private final CustomerService customerService;
+    private final OrderResponseService orderResponseService;
 
     @GetMapping(value = "/{customerId}", produces = MediaType.APPLICATION_JSON_VALUE)
     public CustomerResponse getCustomer(@PathVariable String customerId) {
         return customerService.getCustomer(customerId);
     }
 
+    @GetMapping(value = "/{customerId}/orders", produces = MediaType.APPLICATION_JSON_VALUE)
+    public OrderPageResponse getCustomerOrders(@PathVariable String customerId,
+                                               @RequestParam(required = false) String after,
+                                               @RequestParam(defaultValue = OrderController.DEFAULT_PAGE_SIZE)
+                                                       int size) {
+        return orderResponseService.getCustomerOrders(customerId, after, size);
+    }
+
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     public CustomerResponse postCustomer(@Valid @RequestBody CustomerRequest customerRequest) {
         return customerService.postCustomer(customerRequest);
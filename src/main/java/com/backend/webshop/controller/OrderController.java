@@ -1,34 +1,91 @@
 package com.backend.webshop.controller;
 
+import com.backend.webshop.controller.response.BulkOrderResultResponse;
+import com.backend.webshop.controller.response.OrderPageResponse;
 import com.backend.webshop.controller.response.OrderResponse;
+import com.backend.webshop.model.Order;
+import com.backend.webshop.repository.OrderFilter;
+import com.backend.webshop.service.BulkOrderService;
+import com.backend.webshop.service.OrderExportService;
 import com.backend.webshop.service.OrderResponseService;
 import com.backend.webshop.controller.request.OrderRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping(value = "/api/v1/")
 @RequiredArgsConstructor
 public class OrderController {
 
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String DEFAULT_PAGE_SIZE = "20";
+
     private final OrderResponseService orderResponseService;
+    private final BulkOrderService bulkOrderService;
+    private final OrderExportService orderExportService;
 
     @GetMapping(value = "/read-order/{orderId}", produces = MediaType.APPLICATION_JSON_VALUE)
     public OrderResponse getOrder(@PathVariable String orderId) {
         return orderResponseService.getOrder(orderId);
     }
 
+    @GetMapping(value = "/read-orders", produces = MediaType.APPLICATION_JSON_VALUE)
+    public OrderPageResponse getOrders(@RequestParam(required = false) UUID customerId,
+                                       @RequestParam(required = false) Order.Status status,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME)
+                                               Instant createdFrom,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME)
+                                               Instant createdTo,
+                                       @RequestParam(required = false) String after,
+                                       @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+        OrderFilter filter = new OrderFilter();
+        filter.setCustomerId(customerId);
+        filter.setStatus(status);
+        filter.setCreatedFrom(createdFrom);
+        filter.setCreatedTo(createdTo);
+
+        return orderResponseService.getOrders(filter, after, size);
+    }
+
+    @GetMapping(value = "/export-orders", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "SUBMITTED") Order.Status status,
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) Instant createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) Instant createdTo) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(outputStream -> orderExportService.exportOrders(status, createdFrom, createdTo, outputStream));
+    }
+
     @PostMapping(value = "submit-order/{orderId}", produces = MediaType.APPLICATION_JSON_VALUE)
     public OrderResponse submitOrder(@PathVariable String orderId) {
         return orderResponseService.submitOrder(orderId);
     }
 
     @PostMapping(value = "/create-order")
-    public OrderResponse postOrder(@Valid @RequestBody OrderRequest orderRequest) {
-        return orderResponseService.postOrder(orderRequest);
+    public OrderResponse postOrder(@Valid @RequestBody OrderRequest orderRequest,
+                                   @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false)
+                                           String idempotencyKey) {
+        return orderResponseService.postOrder(orderRequest, idempotencyKey);
+    }
+
+    @PostMapping(value = "/create-orders",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<BulkOrderResultResponse> postOrders(InputStream orderRequests) throws IOException {
+        return bulkOrderService.createOrders(orderRequests);
     }
 
     @PutMapping(value = "/update-order/{orderId}", consumes = MediaType.APPLICATION_JSON_VALUE,
@@ -2,6 +2,7 @@ package com.backend.webshop.controller;
 
 import com.backend.webshop.controller.request.ProductRequest;
 import com.backend.webshop.controller.response.ProductResponse;
+import com.backend.webshop.controller.response.ProductSearchResponse;
 import com.backend.webshop.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
@@ -14,6 +15,8 @@ import javax.validation.Valid;
 @RequiredArgsConstructor
 public class ProductController {
 
+    public static final String DEFAULT_SEARCH_SIZE = "20";
+
     private final ProductService productService;
 
     @GetMapping(value = "/{productId}", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -21,6 +24,18 @@ public class ProductController {
         return productService.getProduct(productId);
     }
 
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ProductSearchResponse searchProducts(@RequestParam String query,
+                                                @RequestParam(defaultValue = "true") boolean availableOnly,
+                                                @RequestParam(defaultValue = DEFAULT_SEARCH_SIZE) int size) {
+        return productService.searchProducts(query, availableOnly, size);
+    }
+
+    @GetMapping(value = "/by-code/{code}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ProductResponse getProductByCode(@PathVariable String code) {
+        return productService.getProductByCode(code);
+    }
+
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     public ProductResponse postProduct(@Valid @RequestBody ProductRequest productRequest) {
         return productService.postProduct(productRequest);
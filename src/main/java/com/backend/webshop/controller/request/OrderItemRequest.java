@@ -1,18 +1,32 @@
 package com.backend.webshop.controller.request;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
+import javax.validation.constraints.AssertTrue;
 import javax.validation.constraints.Min;
-import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
 
 @Data
 public class OrderItemRequest {
 
-    @NotBlank
     private String productId;
 
+    @Size(min = 10, max = 10)
+    private String productCode;
+
     @NotNull
     @Min(0)
     private Long quantity;
+
+    @JsonIgnore
+    @AssertTrue(message = "must reference the product by exactly one of productId and productCode")
+    public boolean isProductReferenced() {
+        return isBlank(productId) != isBlank(productCode);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
 }
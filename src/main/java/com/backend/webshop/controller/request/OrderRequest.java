@@ -2,6 +2,7 @@ package com.backend.webshop.controller.request;
 
 import lombok.Data;
 
+import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import java.util.List;
 
@@ -11,5 +12,6 @@ public class OrderRequest {
     @NotBlank
     private String customerId;
 
+    @Valid
     private List<OrderItemRequest> orderItemList;
 }
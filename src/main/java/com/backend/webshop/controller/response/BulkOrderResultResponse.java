@@ -0,0 +1,19 @@
+package com.backend.webshop.controller.response;
+
+import lombok.Data;
+
+@Data
+public class BulkOrderResultResponse {
+
+    private int index;
+    private Result result;
+    private String orderId;
+    private String reason;
+
+    public enum Result {
+        CREATED,
+        REJECTED,
+        // Passed the checks but its chunk could not be written, the order was not created and can be sent again
+        FAILED
+    }
+}
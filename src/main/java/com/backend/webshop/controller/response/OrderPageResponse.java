@@ -0,0 +1,13 @@
+package com.backend.webshop.controller.response;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class OrderPageResponse {
+
+    private List<OrderSummaryResponse> orderList;
+    // Passed as the after parameter to get the next page, null on the last page
+    private String nextCursor;
+}
@@ -16,5 +16,6 @@ public class OrderResponse {
     private Order.Status status;
     private BigDecimal totalPriceHrk;
     private BigDecimal totalPriceEur;
+    private BigDecimal exchangeRateEur;
     private List<OrderItemResponse> orderItemList;
 }
@@ -0,0 +1,18 @@
+package com.backend.webshop.controller.response;
+
+import com.backend.webshop.model.Order;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+public class OrderSummaryResponse {
+
+    private String orderId;
+    private String customerId;
+    private Order.Status status;
+    private Instant createdAt;
+    private BigDecimal totalPriceHrk;
+    private BigDecimal totalPriceEur;
+}
@@ -0,0 +1,13 @@
+package com.backend.webshop.controller.response;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ProductSearchResponse {
+
+    private List<ProductResponse> productList;
+    // All matching products, productList holds at most size of them
+    private int totalMatches;
+}
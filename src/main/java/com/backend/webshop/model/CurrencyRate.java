@@ -0,0 +1,39 @@
+package com.backend.webshop.model;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.UUID;
+
+@Value
+public class CurrencyRate {
+
+    String currency;
+    String currencyCode;
+    int unit;
+    BigDecimal buyingRate;
+    BigDecimal middleRate;
+    BigDecimal sellingRate;
+    BigDecimal buyingRatePerUnit;
+    UUID exchangeRateId;
+
+    public CurrencyRate(String currency, String currencyCode, int unit, BigDecimal buyingRate,
+                        BigDecimal middleRate, BigDecimal sellingRate) {
+        this(currency, currencyCode, unit, buyingRate, middleRate, sellingRate, null);
+    }
+
+    public CurrencyRate(String currency, String currencyCode, int unit, BigDecimal buyingRate,
+                        BigDecimal middleRate, BigDecimal sellingRate, UUID exchangeRateId) {
+        this.currency = currency;
+        this.currencyCode = currencyCode;
+        this.unit = unit;
+        this.buyingRate = buyingRate;
+        this.middleRate = middleRate;
+        this.sellingRate = sellingRate;
+        this.buyingRatePerUnit = unit == 1
+                ? buyingRate
+                : buyingRate.divide(BigDecimal.valueOf(unit), MathContext.DECIMAL64);
+        this.exchangeRateId = exchangeRateId;
+    }
+}
@@ -3,7 +3,11 @@ package com.backend.webshop.model;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
@@ -14,10 +18,15 @@ import java.util.UUID;
 @Setter
 @ToString
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Customer.CACHE_REGION)
 public class Customer {
 
+    public static final String CACHE_REGION = "customer";
+
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = TimeOrderedUuidGenerator.NAME)
+    @GenericGenerator(name = TimeOrderedUuidGenerator.NAME, strategy = TimeOrderedUuidGenerator.STRATEGY)
     private UUID id;
 
     @Column(name = "first_name")
@@ -0,0 +1,46 @@
+package com.backend.webshop.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.GenericGenerator;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Getter
+@Setter
+@ToString
+@Entity
+@Table(name = "exchange_rate",
+        uniqueConstraints = @UniqueConstraint(name = "uk_exchange_rate_application_date_currency",
+                columnNames = {"application_date", "currency"}))
+public class ExchangeRate {
+
+    @Id
+    @GeneratedValue(generator = TimeOrderedUuidGenerator.NAME)
+    @GenericGenerator(name = TimeOrderedUuidGenerator.NAME, strategy = TimeOrderedUuidGenerator.STRATEGY)
+    private UUID id;
+
+    @Column(name = "application_date", nullable = false)
+    private LocalDate applicationDate;
+
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Column(name = "currency_code", length = 3)
+    private String currencyCode;
+
+    private Integer unit;
+
+    @Column(name = "buying_rate", precision = 19, scale = 6)
+    private BigDecimal buyingRate;
+
+    @Column(name = "middle_rate", precision = 19, scale = 6)
+    private BigDecimal middleRate;
+
+    @Column(name = "selling_rate", precision = 19, scale = 6)
+    private BigDecimal sellingRate;
+}
@@ -0,0 +1,32 @@
+package com.backend.webshop.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.Instant;
+
+@Getter
+@Setter
+@ToString
+@Entity
+@Table(name = "idempotency_key")
+public class IdempotencyKey {
+
+    @Id
+    @Column(name = "idempotency_key")
+    private String key;
+
+    @Column(name = "request_fingerprint", nullable = false, length = 64)
+    private String requestFingerprint;
+
+    // Null while the request holding the key is still creating its order
+    private String response;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
@@ -4,9 +4,13 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 import org.hibernate.Hibernate;
+import org.hibernate.annotations.GenericGenerator;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -15,25 +19,58 @@ import java.util.UUID;
 @ToString
 @Entity
 @Table(name = "webshop_order" )
+@NamedEntityGraph(name = Order.WITH_CUSTOMER_AND_ITEMS,
+        attributeNodes = {@NamedAttributeNode("customer"), @NamedAttributeNode(value = "items", subgraph = "items")},
+        subgraphs = @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode("product")))
 public class Order {
 
+    // Response rendering: everything createOrderResponse touches
+    public static final String WITH_CUSTOMER_AND_ITEMS = "Order.withCustomerAndItems";
+
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = TimeOrderedUuidGenerator.NAME)
+    @GenericGenerator(name = TimeOrderedUuidGenerator.NAME, strategy = TimeOrderedUuidGenerator.STRATEGY)
     private UUID id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", referencedColumnName = "id")
     private Customer customer;
 
     @Enumerated(EnumType.ORDINAL)
     private Status status;
 
+    @Version
+    private Long version;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
     @Column(name = "total_price_hrk")
     private BigDecimal totalPriceHrk;
 
     @Column(name = "total_price_eur")
     private BigDecimal totalPriceEur;
 
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "exchange_rate_id", referencedColumnName = "id")
+    private ExchangeRate exchangeRate;
+
+    @Column(name = "exchange_rate_eur", precision = 19, scale = 6)
+    private BigDecimal exchangeRateEur;
+
+    @ToString.Exclude
+    @OneToMany(mappedBy = "order")
+    private List<OrderItem> items = new ArrayList<>();
+
+    @PrePersist
+    void prePersist() {
+        if (createdAt == null) {
+            createdAt = Instant.now();
+        }
+    }
+
     public enum Status {
         DRAFT, SUBMITTED
     }
@@ -3,6 +3,7 @@ package com.backend.webshop.model;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.GenericGenerator;
 
 import javax.persistence.*;
 import java.util.UUID;
@@ -11,17 +12,23 @@ import java.util.UUID;
 @Setter
 @ToString
 @Entity
+@NamedEntityGraph(name = OrderItem.WITH_PRODUCT, attributeNodes = @NamedAttributeNode("product"))
 public class OrderItem {
 
+    public static final String WITH_PRODUCT = "OrderItem.withProduct";
+
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = TimeOrderedUuidGenerator.NAME)
+    @GenericGenerator(name = TimeOrderedUuidGenerator.NAME, strategy = TimeOrderedUuidGenerator.STRATEGY)
     private UUID id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "order_id", referencedColumnName = "id")
     private Order order;
 
-    @OneToOne(fetch = FetchType.EAGER)
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "product_id", referencedColumnName = "id")
     private Product product;
 
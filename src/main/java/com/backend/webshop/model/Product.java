@@ -3,7 +3,11 @@ package com.backend.webshop.model;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
@@ -17,10 +21,15 @@ import java.util.UUID;
 @Setter
 @ToString
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Product.CACHE_REGION)
 public class Product {
 
+    public static final String CACHE_REGION = "product";
+
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = TimeOrderedUuidGenerator.NAME)
+    @GenericGenerator(name = TimeOrderedUuidGenerator.NAME, strategy = TimeOrderedUuidGenerator.STRATEGY)
     private UUID id;
 
     @Column(name = "product_code", unique = true, length = 10)
@@ -0,0 +1,91 @@
+package com.backend.webshop.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+public final class RateTable {
+
+    private static final int ALPHABET_SIZE = 26;
+    private static final int INDEX_SIZE = ALPHABET_SIZE * ALPHABET_SIZE * ALPHABET_SIZE;
+
+    private final LocalDate applicationDate;
+    private final CurrencyRate[] ratesByCurrency;
+    private final List<CurrencyRate> rates;
+
+    private RateTable(LocalDate applicationDate, CurrencyRate[] ratesByCurrency, List<CurrencyRate> rates) {
+        this.applicationDate = applicationDate;
+        this.ratesByCurrency = ratesByCurrency;
+        this.rates = rates;
+    }
+
+    public static Builder builder(LocalDate applicationDate) {
+        return new Builder(applicationDate);
+    }
+
+    public LocalDate getApplicationDate() {
+        return applicationDate;
+    }
+
+    public List<CurrencyRate> getRates() {
+        return rates;
+    }
+
+    public Optional<CurrencyRate> getRate(String currency) {
+        int index = indexOf(currency);
+
+        return index < 0 ? Optional.empty() : Optional.ofNullable(ratesByCurrency[index]);
+    }
+
+    // ISO 4217 alphabetic codes are three letters A-Z, so they map onto a dense array index
+    private static int indexOf(String currency) {
+        if (currency == null || currency.length() != 3) {
+            return -1;
+        }
+
+        int index = 0;
+        for (int i = 0; i < 3; i++) {
+            int letter = Character.toUpperCase(currency.charAt(i)) - 'A';
+            if (letter < 0 || letter >= ALPHABET_SIZE) {
+                return -1;
+            }
+            index = index * ALPHABET_SIZE + letter;
+        }
+
+        return index;
+    }
+
+    public static final class Builder {
+
+        private final LocalDate applicationDate;
+        private final CurrencyRate[] ratesByCurrency = new CurrencyRate[INDEX_SIZE];
+        private final List<CurrencyRate> rates = new ArrayList<>();
+
+        private Builder(LocalDate applicationDate) {
+            this.applicationDate = applicationDate;
+        }
+
+        public Builder add(CurrencyRate currencyRate) {
+            int index = indexOf(currencyRate.getCurrency());
+            if (index < 0) {
+                throw new IllegalArgumentException("Invalid currency: " + currencyRate.getCurrency());
+            }
+
+            if (ratesByCurrency[index] == null) {
+                rates.add(currencyRate);
+            } else {
+                rates.set(rates.indexOf(ratesByCurrency[index]), currencyRate);
+            }
+            ratesByCurrency[index] = currencyRate;
+
+            return this;
+        }
+
+        public RateTable build() {
+            return new RateTable(applicationDate, ratesByCurrency.clone(), Collections.unmodifiableList(
+                    new ArrayList<>(rates)));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.backend.webshop.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.io.Serializable;
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Issues UUIDv7-style ids: a 48-bit Unix millisecond timestamp followed by a 12-bit sequence and 62 random bits.
+ * Hibernate keeps one generator per entity, whose ids are strictly increasing, so inserts land on the right edge of
+ * the primary key index instead of random pages.
+ */
+public class TimeOrderedUuidGenerator implements IdentifierGenerator {
+
+    public static final String NAME = "time-ordered-uuid";
+    public static final String STRATEGY = "com.backend.webshop.model.TimeOrderedUuidGenerator";
+
+    private static final int SEQUENCE_BITS = 12;
+
+    private static final ThreadLocal<SecureRandom> random = ThreadLocal.withInitial(SecureRandom::new);
+
+    // Timestamp in the upper bits, sequence within the millisecond in the lower SEQUENCE_BITS
+    private final AtomicLong lastTimestampAndSequence = new AtomicLong();
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        return nextUuid(System.currentTimeMillis());
+    }
+
+    UUID nextUuid(long epochMillis) {
+        long candidate = epochMillis << SEQUENCE_BITS;
+        // A full sequence or a clock moving backwards borrows from the next millisecond to stay monotonic
+        long timestampAndSequence = lastTimestampAndSequence.updateAndGet(last -> Math.max(last + 1, candidate));
+
+        long timestamp = timestampAndSequence >>> SEQUENCE_BITS;
+        long sequence = timestampAndSequence & ((1L << SEQUENCE_BITS) - 1);
+
+        long mostSignificantBits = (timestamp << 16) | (0x7L << 12) | sequence;
+        long leastSignificantBits = (random.get().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+}
@@ -0,0 +1,15 @@
+package com.backend.webshop.repository;
+
+import com.backend.webshop.model.ExchangeRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ExchangeRateRepository extends JpaRepository<ExchangeRate, UUID> {
+    List<ExchangeRate> findByApplicationDate(LocalDate applicationDate);
+
+    Optional<ExchangeRate> findFirstByApplicationDateLessThanEqualOrderByApplicationDateDesc(LocalDate applicationDate);
+}
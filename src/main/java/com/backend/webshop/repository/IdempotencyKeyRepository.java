@@ -0,0 +1,43 @@
+package com.backend.webshop.repository;
+
+import com.backend.webshop.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface IdempotencyKeyRepository extends CrudRepository<IdempotencyKey, String> {
+
+    Optional<IdempotencyKey> findByKeyAndExpiresAtAfter(String key, Instant now);
+
+    // A plain insert instead of save, which would merge into a row another request already holds
+    @Transactional
+    @Modifying
+    @Query(value = "insert into idempotency_key (idempotency_key, request_fingerprint, expires_at) " +
+            "values (:key, :requestFingerprint, :expiresAt)", nativeQuery = true)
+    int insert(@Param("key") String key, @Param("requestFingerprint") String requestFingerprint,
+               @Param("expiresAt") Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyKey k set k.response = :response where k.key = :key")
+    int updateResponse(@Param("key") String key, @Param("response") String response);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.key = :key")
+    int deleteByKey(@Param("key") String key);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.key = :key and k.expiresAt <= :now")
+    int deleteExpired(@Param("key") String key, @Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
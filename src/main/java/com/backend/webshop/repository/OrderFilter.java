@@ -0,0 +1,18 @@
+package com.backend.webshop.repository;
+
+import com.backend.webshop.model.Order;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+public class OrderFilter {
+
+    private UUID customerId;
+    private Order.Status status;
+    // Inclusive
+    private Instant createdFrom;
+    // Exclusive
+    private Instant createdTo;
+}
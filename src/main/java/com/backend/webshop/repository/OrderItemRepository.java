@@ -1,11 +1,33 @@
 package com.backend.webshop.repository;
 
+import com.backend.webshop.model.Order;
 import com.backend.webshop.model.OrderItem;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
 public interface OrderItemRepository extends CrudRepository<OrderItem, UUID> {
+    @EntityGraph(OrderItem.WITH_PRODUCT)
     List<OrderItem> findOrderItemsByOrder_Id(UUID id);
+
+    @Query("select sum(p.priceHrk * oi.quantity) from OrderItem oi join oi.product p " +
+            "where oi.order.id = :orderId group by oi.order.id")
+    BigDecimal sumTotalPriceHrkByOrderId(@Param("orderId") UUID orderId);
+
+    @Modifying
+    @Query("delete from OrderItem oi where oi.order.id = :orderId")
+    int deleteByOrderId(@Param("orderId") UUID orderId);
+
+    @Modifying
+    @Query("delete from OrderItem oi where oi.order.id in " +
+            "(select o.id from Order o where o.status = :status and o.createdAt < :createdBefore)")
+    int deleteByOrderStatusAndOrderCreatedAtBefore(@Param("status") Order.Status status,
+                                                   @Param("createdBefore") Instant createdBefore);
 }
@@ -0,0 +1,16 @@
+package com.backend.webshop.repository;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Position of the last order on a page, the next page starts right after it in (created_at, id) descending order.
+ */
+@Value
+public class OrderKeyset {
+
+    Instant createdAt;
+    UUID id;
+}
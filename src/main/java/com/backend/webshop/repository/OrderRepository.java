@@ -1,9 +1,64 @@
 package com.backend.webshop.repository;
 
+import com.backend.webshop.model.ExchangeRate;
 import com.backend.webshop.model.Order;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface OrderRepository extends CrudRepository<Order, UUID> {
+public interface OrderRepository extends CrudRepository<Order, UUID>, OrderRepositoryCustom {
+
+    @EntityGraph(Order.WITH_CUSTOMER_AND_ITEMS)
+    @Query("select distinct o from Order o where o.id = :id")
+    @QueryHints(@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false"))
+    Optional<Order> findAggregateById(@Param("id") UUID id);
+
+    @Modifying
+    @Query("update Order o set o.version = o.version + 1 where o.id = :id and o.status = :status")
+    int incrementVersionByIdAndStatus(@Param("id") UUID id, @Param("status") Order.Status status);
+
+    // Clears the persistence context so the caller's stale copy of the order is never flushed over the update
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Order o set o.status = :submitted, " +
+            "o.version = o.version + 1, o.totalPriceHrk = :totalPriceHrk, o.totalPriceEur = :totalPriceEur, " +
+            "o.exchangeRate = :exchangeRate, o.exchangeRateEur = :exchangeRateEur " +
+            "where o.id = :id and o.version = :version " +
+            "and o.status = :draft")
+    int submitDraftOrder(@Param("id") UUID id, @Param("version") Long version,
+                         @Param("draft") Order.Status draft, @Param("submitted") Order.Status submitted,
+                         @Param("totalPriceHrk") BigDecimal totalPriceHrk,
+                         @Param("totalPriceEur") BigDecimal totalPriceEur,
+                         @Param("exchangeRate") ExchangeRate exchangeRate,
+                         @Param("exchangeRateEur") BigDecimal exchangeRateEur);
+
+    // One row per order item, or a single row with a null item for an order without items, ordered so the rows
+    // of an order are adjacent. The driver fetches 500 rows at a time from a server-side cursor, the export
+    // bypasses the second-level cache so it does not push the customers and products other requests use out of it.
+    @Query("select o, oi from Order o join fetch o.customer left join o.items oi left join fetch oi.product " +
+            "where o.status = :status and o.createdAt >= :createdFrom and o.createdAt < :createdTo " +
+            "order by o.createdAt, o.id")
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheMode", value = "IGNORE")})
+    Stream<Object[]> streamWithItems(@Param("status") Order.Status status, @Param("createdFrom") Instant createdFrom,
+                                     @Param("createdTo") Instant createdTo);
+
+    @Modifying
+    @Query("delete from Order o where o.id = :id")
+    int deleteOrderById(@Param("id") UUID id);
+
+    @Modifying
+    @Query("delete from Order o where o.status = :status and o.createdAt < :createdBefore")
+    int deleteByStatusAndCreatedAtBefore(@Param("status") Order.Status status,
+                                         @Param("createdBefore") Instant createdBefore);
 }
@@ -0,0 +1,10 @@
+package com.backend.webshop.repository;
+
+import com.backend.webshop.model.Order;
+
+import java.util.List;
+
+public interface OrderRepositoryCustom {
+
+    List<Order> findPage(OrderFilter filter, OrderKeyset after, int limit);
+}
@@ -0,0 +1,59 @@
+package com.backend.webshop.repository;
+
+import com.backend.webshop.model.Order;
+import lombok.RequiredArgsConstructor;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    // Only the filters that are set end up in the query, so it stays an index range scan on
+    // (customer_id | status, created_at, id) however deep the page is
+    @Override
+    public List<Order> findPage(OrderFilter filter, OrderKeyset after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Order> query = cb.createQuery(Order.class);
+        Root<Order> order = query.from(Order.class);
+        Path<Instant> createdAt = order.get("createdAt");
+        Path<UUID> id = order.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getCustomerId() != null) {
+            predicates.add(cb.equal(order.get("customer").get("id"), filter.getCustomerId()));
+        }
+        if (filter.getStatus() != null) {
+            predicates.add(cb.equal(order.get("status"), filter.getStatus()));
+        }
+        if (filter.getCreatedFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(createdAt, filter.getCreatedFrom()));
+        }
+        if (filter.getCreatedTo() != null) {
+            predicates.add(cb.lessThan(createdAt, filter.getCreatedTo()));
+        }
+        if (after != null) {
+            // (created_at, id) < (:createdAt, :id), the first condition alone bounds the index range
+            predicates.add(cb.lessThanOrEqualTo(createdAt, after.getCreatedAt()));
+            predicates.add(cb.or(cb.lessThan(createdAt, after.getCreatedAt()), cb.lessThan(id, after.getId())));
+        }
+
+        query.select(order)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(createdAt), cb.desc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
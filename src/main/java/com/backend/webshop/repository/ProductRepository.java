@@ -1,9 +1,23 @@
 package com.backend.webshop.repository;
 
 import com.backend.webshop.model.Product;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface ProductRepository extends CrudRepository<Product, UUID> {
+    List<Product> findAllByCodeIn(Collection<String> codes);
+
+    // Full scan for the search index, kept out of the second-level cache
+    @Query("select p from Product p order by p.id")
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheMode", value = "IGNORE")})
+    Stream<Product> streamAll();
 }
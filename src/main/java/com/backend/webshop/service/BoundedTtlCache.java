@@ -0,0 +1,94 @@
+package com.backend.webshop.service;
+
+import lombok.Value;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps at most maxEntries values, the least recently used one is evicted to make room and values older than the
+ * time to live are never returned.
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final Duration timeToLive;
+    private final Clock clock;
+    private final Map<K, CachedValue<V>> values;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public BoundedTtlCache(int maxEntries, Duration timeToLive, Clock clock) {
+        this.timeToLive = timeToLive;
+        this.clock = clock;
+        this.values = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CachedValue<V>> eldest) {
+                if (size() > maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized Optional<V> get(K key) {
+        CachedValue<V> cached = values.get(key);
+
+        if (cached == null) {
+            return Optional.empty();
+        }
+
+        if (cached.isExpired(clock.instant())) {
+            values.remove(key);
+            evictions.incrementAndGet();
+            return Optional.empty();
+        }
+
+        return Optional.of(cached.getValue());
+    }
+
+    public synchronized void put(K key, V value) {
+        values.put(key, new CachedValue<>(value, clock.instant().plus(timeToLive)));
+    }
+
+    public synchronized void invalidate(K key) {
+        values.remove(key);
+    }
+
+    public synchronized void evictExpired() {
+        Instant now = clock.instant();
+
+        values.values().removeIf(cached -> {
+            boolean expired = cached.isExpired(now);
+            if (expired) {
+                evictions.incrementAndGet();
+            }
+            return expired;
+        });
+    }
+
+    public synchronized int size() {
+        return values.size();
+    }
+
+    // Entries dropped to stay within maxEntries or because they expired, invalidated entries are not counted
+    public long evictionCount() {
+        return evictions.get();
+    }
+
+    @Value
+    private static class CachedValue<V> {
+
+        V value;
+        Instant expiresAt;
+
+        boolean isExpired(Instant now) {
+            return !now.isBefore(expiresAt);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.backend.webshop.service;
+
+import com.backend.webshop.controller.request.OrderItemRequest;
+import com.backend.webshop.controller.request.OrderRequest;
+import com.backend.webshop.controller.response.BulkOrderResultResponse;
+import com.backend.webshop.model.Customer;
+import com.backend.webshop.model.Order;
+import com.backend.webshop.model.Product;
+import com.backend.webshop.repository.CustomerRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.backend.webshop.controller.response.BulkOrderResultResponse.Result.CREATED;
+import static com.backend.webshop.controller.response.BulkOrderResultResponse.Result.FAILED;
+import static com.backend.webshop.controller.response.BulkOrderResultResponse.Result.REJECTED;
+
+/**
+ * Creates orders read one by one from a JSON array or an NDJSON stream. Every chunk of orders is checked with one
+ * customer and one product lookup and written in its own transaction, so a rejected or malformed order does not
+ * roll back the ones before it. A chunk that fails to save reports its orders as failed, the chunks before it stay
+ * created.
+ */
+@Slf4j
+@Service
+public class BulkOrderService {
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final CustomerRepository customerRepository;
+    private final ProductCache productCache;
+    private final OrderService orderService;
+    private final int chunkSize;
+
+    public BulkOrderService(ObjectMapper objectMapper, Validator validator, EntityManager entityManager,
+                            CustomerRepository customerRepository, ProductCache productCache,
+                            OrderService orderService, @Value("${app.bulk-order.chunk-size:500}") int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.customerRepository = customerRepository;
+        this.productCache = productCache;
+        this.orderService = orderService;
+        this.chunkSize = chunkSize;
+    }
+
+    public List<BulkOrderResultResponse> createOrders(InputStream orderRequests) throws IOException {
+        List<BulkOrderResultResponse> results = new ArrayList<>();
+        List<OrderRequest> chunk = new ArrayList<>(chunkSize);
+
+        try (MappingIterator<OrderRequest> iterator =
+                     objectMapper.readerFor(OrderRequest.class).readValues(orderRequests)) {
+            while (iterator.hasNextValue()) {
+                chunk.add(iterator.nextValue());
+
+                if (chunk.size() == chunkSize) {
+                    results.addAll(createChunk(chunk, results.size()));
+                    chunk.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // The position in the stream is lost, everything after a malformed order is left unread
+            results.addAll(createChunk(chunk, results.size()));
+            results.add(createResult(results.size(), REJECTED, null, "Malformed order request"));
+
+            return results;
+        }
+
+        results.addAll(createChunk(chunk, results.size()));
+
+        return results;
+    }
+
+    private List<BulkOrderResultResponse> createChunk(List<OrderRequest> chunk, int firstIndex) {
+        if (chunk.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, Customer> customers = findCustomers(chunk);
+        ProductLookup products = findProducts(chunk);
+
+        List<BulkOrderResultResponse> results = new ArrayList<>(chunk.size());
+        List<BulkOrderResultResponse> createdResults = new ArrayList<>();
+        List<Order> orders = new ArrayList<>();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            OrderRequest orderRequest = chunk.get(i);
+            Optional<String> rejection = findRejection(orderRequest, customers, products);
+
+            if (rejection.isPresent()) {
+                results.add(createResult(firstIndex + i, REJECTED, null, rejection.get()));
+                continue;
+            }
+
+            Order order = new Order();
+            order.setCustomer(customers.get(UUID.fromString(orderRequest.getCustomerId())));
+            order.setStatus(Order.Status.DRAFT);
+            orderRequest.getOrderItemList().forEach(item -> order.getItems().add(orderService.createOrderItem(
+                    order, products.find(item), item.getQuantity())));
+            orders.add(order);
+
+            BulkOrderResultResponse result = createResult(firstIndex + i, CREATED, null, null);
+            createdResults.add(result);
+            results.add(result);
+        }
+
+        try {
+            orderService.saveOrders(orders);
+            for (int i = 0; i < orders.size(); i++) {
+                createdResults.get(i).setOrderId(orders.get(i).getId().toString());
+            }
+        } catch (RuntimeException e) {
+            // The chunk's transaction is rolled back, earlier chunks stay committed and keep their results
+            log.warn("Could not save orders {} to {}", firstIndex, firstIndex + chunk.size() - 1, e);
+            createdResults.forEach(result -> {
+                result.setResult(FAILED);
+                result.setReason("Could not save order");
+            });
+        }
+
+        // The request keeps one persistence context open, without this it would grow with every chunk
+        entityManager.clear();
+
+        return results;
+    }
+
+    private Optional<String> findRejection(OrderRequest orderRequest, Map<UUID, Customer> customers,
+                                           ProductLookup products) {
+        if (orderRequest == null) {
+            return Optional.of("Malformed order request");
+        }
+
+        // Cascades into the items, null items are skipped by validation and rejected below
+        Set<ConstraintViolation<OrderRequest>> violations = validator.validate(orderRequest);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<OrderRequest> violation = violations.iterator().next();
+            return Optional.of(violation.getPropertyPath() + " " + violation.getMessage());
+        }
+        if (orderRequest.getOrderItemList() == null) {
+            return Optional.of("orderItemList must not be null");
+        }
+        for (int i = 0; i < orderRequest.getOrderItemList().size(); i++) {
+            if (orderRequest.getOrderItemList().get(i) == null) {
+                return Optional.of("orderItemList[" + i + "] must not be null");
+            }
+        }
+
+        UUID customerId = parseUuid(orderRequest.getCustomerId());
+        if (customerId == null || !customers.containsKey(customerId)) {
+            return Optional.of("Unable to find customer " + orderRequest.getCustomerId());
+        }
+
+        for (OrderItemRequest item : orderRequest.getOrderItemList()) {
+            Product product = products.find(item);
+
+            if (product == null || !Boolean.TRUE.equals(product.getIsAvailable())) {
+                return Optional.of("Resource unavailable "
+                        + (item.getProductId() != null ? item.getProductId() : item.getProductCode()));
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private Map<UUID, Customer> findCustomers(List<OrderRequest> chunk) {
+        Set<UUID> customerIds = new HashSet<>();
+        chunk.stream()
+                .filter(Objects::nonNull)
+                .forEach(orderRequest -> addIfValid(customerIds, orderRequest.getCustomerId()));
+
+        Map<UUID, Customer> customers = new HashMap<>();
+        customerRepository.findAllById(customerIds).forEach(customer -> customers.put(customer.getId(), customer));
+
+        return customers;
+    }
+
+    private ProductLookup findProducts(List<OrderRequest> chunk) {
+        List<OrderItemRequest> items = chunk.stream()
+                .filter(orderRequest -> orderRequest != null && orderRequest.getOrderItemList() != null)
+                .flatMap(orderRequest -> orderRequest.getOrderItemList().stream())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        return ProductLookup.load(productCache, items);
+    }
+
+    private void addIfValid(Set<UUID> ids, String id) {
+        UUID uuid = parseUuid(id);
+        if (uuid != null) {
+            ids.add(uuid);
+        }
+    }
+
+    private UUID parseUuid(String id) {
+        try {
+            return id == null ? null : UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private BulkOrderResultResponse createResult(int index, BulkOrderResultResponse.Result result, String orderId,
+                                                 String reason) {
+        BulkOrderResultResponse bulkOrderResultResponse = new BulkOrderResultResponse();
+        bulkOrderResultResponse.setIndex(index);
+        bulkOrderResultResponse.setResult(result);
+        bulkOrderResultResponse.setOrderId(orderId);
+        bulkOrderResultResponse.setReason(reason);
+
+        return bulkOrderResultResponse;
+    }
+}
@@ -0,0 +1,140 @@
+package com.backend.webshop.service;
+
+import com.backend.webshop.model.RateTable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+public class CachingRateService implements RateService {
+
+    private final RateService delegate;
+    private final Duration timeToLive;
+    private final Executor refreshExecutor;
+    private final Clock clock;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final AtomicBoolean refreshInFlight = new AtomicBoolean();
+    private final AtomicReference<CachedRateTable> currentRateTable = new AtomicReference<>();
+    private final AtomicReference<CachedRateTable> nextRateTable = new AtomicReference<>();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Timer refreshTimer;
+
+    public CachingRateService(RateService delegate, Duration timeToLive, MeterRegistry meterRegistry,
+                              Executor refreshExecutor, Clock clock) {
+        this.delegate = delegate;
+        this.timeToLive = timeToLive;
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+
+        this.hitCounter = meterRegistry.counter("webshop.rate.cache", "result", "hit");
+        this.missCounter = meterRegistry.counter("webshop.rate.cache", "result", "miss");
+        this.refreshTimer = meterRegistry.timer("webshop.rate.cache.refresh");
+    }
+
+    @Override
+    public RateTable getRateTable() {
+        promoteNextRateTableIfApplicable();
+
+        CachedRateTable cached = currentRateTable.get();
+
+        if (cached != null && cached.isFresh(clock.instant())) {
+            hitCounter.increment();
+            return cached.getRateTable();
+        }
+
+        missCounter.increment();
+
+        // Serve the last known good rate table and revalidate in the background
+        if (cached != null) {
+            refreshAsync();
+            return cached.getRateTable();
+        }
+
+        return loadBlocking();
+    }
+
+    public void refreshAsync() {
+        if (!refreshInFlight.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refresh();
+                } catch (RuntimeException e) {
+                    log.warn("Could not refresh rate table, serving last known rates: {}", e.getMessage());
+                } finally {
+                    refreshInFlight.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshInFlight.set(false);
+            throw e;
+        }
+    }
+
+    public void putNextRateTable(RateTable rateTable) {
+        nextRateTable.set(new CachedRateTable(rateTable, Instant.MAX));
+    }
+
+    private RateTable loadBlocking() {
+        refreshLock.lock();
+        try {
+            CachedRateTable current = currentRateTable.get();
+            if (current != null) {
+                return current.getRateTable();
+            }
+
+            return refresh();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private RateTable refresh() {
+        refreshLock.lock();
+        try {
+            RateTable rateTable = refreshTimer.record(delegate::getRateTable);
+            currentRateTable.set(new CachedRateTable(rateTable, clock.instant().plus(timeToLive)));
+
+            return rateTable;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void promoteNextRateTableIfApplicable() {
+        CachedRateTable next = nextRateTable.get();
+
+        if (next != null && !LocalDate.now(clock).isBefore(next.getRateTable().getApplicationDate())
+                && nextRateTable.compareAndSet(next, null)) {
+            currentRateTable.set(new CachedRateTable(next.getRateTable(), clock.instant().plus(timeToLive)));
+        }
+    }
+
+    @Value
+    private static class CachedRateTable {
+
+        RateTable rateTable;
+        Instant expiresAt;
+
+        boolean isFresh(Instant now) {
+            return now.isBefore(expiresAt);
+        }
+    }
+}
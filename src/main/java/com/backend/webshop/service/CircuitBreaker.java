@@ -0,0 +1,100 @@
+package com.backend.webshop.service;
+
+import com.backend.webshop.service.exception.HnbRateServiceException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+
+    private final Timer successTimer;
+    private final Timer failureTimer;
+    private final MeterRegistry meterRegistry;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Instant openedAt;
+    private boolean trialCallInFlight;
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration, MeterRegistry meterRegistry,
+                          Clock clock) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+
+        this.successTimer = meterRegistry.timer("webshop.circuit.calls", "name", name, "outcome", "success");
+        this.failureTimer = meterRegistry.timer("webshop.circuit.calls", "name", name, "outcome", "failure");
+        meterRegistry.gauge("webshop.circuit.state", Tags.of("name", name), this,
+                circuitBreaker -> circuitBreaker.getState().ordinal());
+    }
+
+    public <T> T call(Supplier<T> supplier) {
+        acquirePermission();
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            T result = supplier.get();
+            sample.stop(successTimer);
+            onSuccess();
+
+            return result;
+        } catch (RuntimeException | Error e) {
+            sample.stop(failureTimer);
+            onFailure();
+
+            throw e;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private synchronized void acquirePermission() {
+        if (state == State.OPEN && !clock.instant().isBefore(openedAt.plus(openDuration))) {
+            state = State.HALF_OPEN;
+        }
+
+        // While half open only a single trial call is let through, everything else fails fast
+        if (state == State.OPEN || (state == State.HALF_OPEN && trialCallInFlight)) {
+            meterRegistry.counter("webshop.circuit.rejected", "name", name).increment();
+            throw new HnbRateServiceException("Circuit breaker '" + name + "' is open");
+        }
+
+        if (state == State.HALF_OPEN) {
+            trialCallInFlight = true;
+        }
+    }
+
+    private synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialCallInFlight = false;
+    }
+
+    private synchronized void onFailure() {
+        consecutiveFailures++;
+        trialCallInFlight = false;
+
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.instant();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.backend.webshop.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+@Slf4j
+@Component
+public class DraftOrderCleanupScheduler {
+
+    private final OrderService orderService;
+    private final Clock clock;
+    private final Duration draftMaxAge;
+
+    public DraftOrderCleanupScheduler(OrderService orderService, Clock clock,
+                                      @Value("${app.order-cleanup.draft-max-age:30d}") Duration draftMaxAge) {
+        this.orderService = orderService;
+        this.clock = clock;
+        this.draftMaxAge = draftMaxAge;
+    }
+
+    @Scheduled(cron = "${app.order-cleanup.cron:-}", zone = "${app.zone}")
+    public void deleteAbandonedDraftOrders() {
+        Instant createdBefore = clock.instant().minus(draftMaxAge);
+
+        int deletedOrders = orderService.deleteDraftOrdersCreatedBefore(createdBefore);
+
+        log.info("Deleted {} draft orders created before {}", deletedOrders, createdBefore);
+    }
+}
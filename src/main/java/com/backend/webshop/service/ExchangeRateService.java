@@ -0,0 +1,91 @@
+package com.backend.webshop.service;
+
+import com.backend.webshop.model.CurrencyRate;
+import com.backend.webshop.model.ExchangeRate;
+import com.backend.webshop.model.RateTable;
+import com.backend.webshop.repository.ExchangeRateRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class ExchangeRateService {
+
+    private final ExchangeRateRepository exchangeRateRepository;
+
+    // Own transaction, so a conflicting insert rolls back only this one and not the caller's
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public RateTable saveRateTable(RateTable rateTable) {
+        Map<String, ExchangeRate> storedRates = findStoredRates(rateTable.getApplicationDate());
+
+        List<ExchangeRate> newRates = new ArrayList<>();
+        for (CurrencyRate currencyRate : rateTable.getRates()) {
+            if (!storedRates.containsKey(currencyRate.getCurrency())) {
+                newRates.add(createExchangeRate(rateTable.getApplicationDate(), currencyRate));
+            }
+        }
+
+        if (newRates.isEmpty()) {
+            return createRateTable(rateTable.getApplicationDate(), storedRates.values());
+        }
+
+        exchangeRateRepository.saveAllAndFlush(newRates);
+
+        newRates.forEach(exchangeRate -> storedRates.put(exchangeRate.getCurrency(), exchangeRate));
+
+        return createRateTable(rateTable.getApplicationDate(), storedRates.values());
+    }
+
+    public Optional<RateTable> findRateTable(LocalDate applicationDate) {
+        return exchangeRateRepository.findFirstByApplicationDateLessThanEqualOrderByApplicationDateDesc(applicationDate)
+                .map(exchangeRate -> createRateTable(exchangeRate.getApplicationDate(),
+                        exchangeRateRepository.findByApplicationDate(exchangeRate.getApplicationDate())));
+    }
+
+    private Map<String, ExchangeRate> findStoredRates(LocalDate applicationDate) {
+        Map<String, ExchangeRate> storedRates = new LinkedHashMap<>();
+        exchangeRateRepository.findByApplicationDate(applicationDate)
+                .forEach(exchangeRate -> storedRates.put(exchangeRate.getCurrency(), exchangeRate));
+
+        return storedRates;
+    }
+
+    private ExchangeRate createExchangeRate(LocalDate applicationDate, CurrencyRate currencyRate) {
+        ExchangeRate exchangeRate = new ExchangeRate();
+        exchangeRate.setApplicationDate(applicationDate);
+        exchangeRate.setCurrency(currencyRate.getCurrency());
+        exchangeRate.setCurrencyCode(currencyRate.getCurrencyCode());
+        exchangeRate.setUnit(currencyRate.getUnit());
+        exchangeRate.setBuyingRate(currencyRate.getBuyingRate());
+        exchangeRate.setMiddleRate(currencyRate.getMiddleRate());
+        exchangeRate.setSellingRate(currencyRate.getSellingRate());
+
+        return exchangeRate;
+    }
+
+    private RateTable createRateTable(LocalDate applicationDate, Iterable<ExchangeRate> exchangeRates) {
+        RateTable.Builder rateTableBuilder = RateTable.builder(applicationDate);
+
+        for (ExchangeRate exchangeRate : exchangeRates) {
+            rateTableBuilder.add(new CurrencyRate(
+                    exchangeRate.getCurrency(),
+                    exchangeRate.getCurrencyCode(),
+                    exchangeRate.getUnit(),
+                    exchangeRate.getBuyingRate(),
+                    exchangeRate.getMiddleRate(),
+                    exchangeRate.getSellingRate(),
+                    exchangeRate.getId()));
+        }
+
+        return rateTableBuilder.build();
+    }
+}
@@ -0,0 +1,186 @@
+package com.backend.webshop.service;
+
+import com.backend.webshop.model.CurrencyRate;
+import com.backend.webshop.model.RateTable;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Component
+public class HnbRateListParser {
+
+    private static final String APPLICATION_DATE = "Datum primjene";
+    private static final String CURRENCY_CODE = "Šifra valute";
+    private static final String CURRENCY = "Valuta";
+    private static final String UNIT = "Jedinica";
+    private static final String BUYING_RATE = "Kupovni za devize";
+    private static final String MIDDLE_RATE = "Srednji za devize";
+    private static final String SELLING_RATE = "Prodajni za devize";
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public Optional<RateTable> parse(InputStream rateList) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(rateList)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected an array of exchange rates");
+            }
+
+            RateTable.Builder rateTableBuilder = null;
+            char[] decimalBuffer = new char[32];
+
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                LocalDate applicationDate = null;
+                String currencyCode = null;
+                String currency = null;
+                int unit = 1;
+                BigDecimal buyingRate = null;
+                BigDecimal middleRate = null;
+                BigDecimal sellingRate = null;
+
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String fieldName = parser.getCurrentName();
+                    parser.nextToken();
+
+                    switch (fieldName) {
+                        case APPLICATION_DATE:
+                            applicationDate = rateTableBuilder == null ? parseDate(parser) : null;
+                            break;
+                        case CURRENCY_CODE:
+                            currencyCode = parser.getText();
+                            break;
+                        case CURRENCY:
+                            currency = parser.getText();
+                            break;
+                        case UNIT:
+                            unit = parseInt(parser);
+                            break;
+                        case BUYING_RATE:
+                            buyingRate = parseCommaDecimal(parser, decimalBuffer);
+                            break;
+                        case MIDDLE_RATE:
+                            middleRate = parseCommaDecimal(parser, decimalBuffer);
+                            break;
+                        case SELLING_RATE:
+                            sellingRate = parseCommaDecimal(parser, decimalBuffer);
+                            break;
+                        default:
+                            parser.skipChildren();
+                    }
+                }
+
+                if (rateTableBuilder == null) {
+                    if (applicationDate == null) {
+                        throw new JsonParseException(parser, "Exchange rate without application date");
+                    }
+                    rateTableBuilder = RateTable.builder(applicationDate);
+                }
+
+                if (currency != null && buyingRate != null) {
+                    addRate(parser, rateTableBuilder, currency, currencyCode, unit, buyingRate, middleRate,
+                            sellingRate);
+                }
+            }
+
+            return rateTableBuilder == null ? Optional.empty() : Optional.of(rateTableBuilder.build());
+        }
+    }
+
+    // A rate the rate table rejects fails the whole list like malformed JSON does
+    private void addRate(JsonParser parser, RateTable.Builder rateTableBuilder, String currency, String currencyCode,
+                         int unit, BigDecimal buyingRate, BigDecimal middleRate, BigDecimal sellingRate)
+            throws IOException {
+        if (unit <= 0) {
+            throw new JsonParseException(parser, "Unexpected unit for " + currency + ": " + unit);
+        }
+
+        try {
+            rateTableBuilder.add(new CurrencyRate(currency, currencyCode, unit, buyingRate, middleRate, sellingRate));
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException(parser, e.getMessage(), e);
+        }
+    }
+
+    // HNB formats dates as dd.MM.yyyy
+    private LocalDate parseDate(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            throw new JsonParseException(parser, "Unexpected application date format: " + parser.getText());
+        }
+
+        char[] text = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+
+        if (parser.getTextLength() != 10 || text[offset + 2] != '.' || text[offset + 5] != '.') {
+            throw new JsonParseException(parser, "Unexpected application date format: " + parser.getText());
+        }
+
+        int day = parseDigits(parser, text, offset, 2);
+        int month = parseDigits(parser, text, offset + 3, 2);
+        int year = parseDigits(parser, text, offset + 6, 4);
+
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            throw new JsonParseException(parser, "Unexpected application date: " + parser.getText(), e);
+        }
+    }
+
+    private int parseInt(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getIntValue();
+        }
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            throw new JsonParseException(parser, "Expected a number: " + parser.getText());
+        }
+
+        return parseDigits(parser, parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+    }
+
+    private int parseDigits(JsonParser parser, char[] text, int offset, int length) throws IOException {
+        int value = 0;
+
+        for (int i = offset; i < offset + length; i++) {
+            int digit = text[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new JsonParseException(parser, "Expected a number: " + parser.getText());
+            }
+            value = value * 10 + digit;
+        }
+
+        return value;
+    }
+
+    // HNB uses a decimal comma, swap it for a point while copying the characters BigDecimal parses
+    private BigDecimal parseCommaDecimal(JsonParser parser, char[] buffer) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            throw new JsonParseException(parser, "Unexpected exchange rate format: " + parser.getText());
+        }
+
+        char[] text = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        int length = parser.getTextLength();
+
+        if (length == 0 || length > buffer.length) {
+            throw new JsonParseException(parser, "Unexpected exchange rate format: " + parser.getText());
+        }
+
+        for (int i = 0; i < length; i++) {
+            char c = text[offset + i];
+            buffer[i] = c == ',' ? '.' : c;
+        }
+
+        try {
+            return new BigDecimal(buffer, 0, length);
+        } catch (NumberFormatException e) {
+            throw new JsonParseException(parser, "Unexpected exchange rate format: " + parser.getText());
+        }
+    }
+}
@@ -1,39 +1,98 @@
 package com.backend.webshop.service;
 
 import com.backend.webshop.configuration.ApplicationConfiguration;
-import com.backend.webshop.model.HnbRate;
+import com.backend.webshop.model.RateTable;
 import com.backend.webshop.service.exception.HnbRateServiceException;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.ResponseEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
-import java.math.BigDecimal;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.util.Objects;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class HnbRateServiceImpl implements RateService{
 
     private final RestTemplate restTemplate;
     private final ApplicationConfiguration applicationConfiguration;
+    private final CircuitBreaker rateClientCircuitBreaker;
+    private final ExchangeRateService exchangeRateService;
+    private final HnbRateListParser hnbRateListParser;
+    @Qualifier("rateClock")
+    private final Clock rateClock;
 
-    public BigDecimal getRateForEur() {
-        URL url = null;
+    public RateTable getRateTable() {
         try {
-            url = new URL(applicationConfiguration.getEurUrl());
+            return fetchRateTable(getRateServiceUrl().toString())
+                    .orElseThrow(() -> new HnbRateServiceException("Rate service returned an empty rate list"));
+        } catch (HnbRateServiceException e) {
+            log.warn("Rate service unavailable, using last persisted rate list: {}", e.getMessage());
+
+            return exchangeRateService.findRateTable(LocalDate.now(rateClock))
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    public Optional<RateTable> getRateTable(LocalDate applicationDate) {
+        String url = UriComponentsBuilder.fromHttpUrl(getRateServiceUrl().toString())
+                .queryParam("datum", applicationDate)
+                .toUriString();
+
+        // HNB answers with an empty list until the rate list for that date is published
+        return fetchRateTable(url)
+                .filter(rateTable -> applicationDate.equals(rateTable.getApplicationDate()));
+    }
+
+    private URL getRateServiceUrl() {
+        try {
+            return new URL(applicationConfiguration.getUrl());
         } catch (MalformedURLException e) {
             throw new HnbRateServiceException("Could not get rate service url");
         }
+    }
+
+    private Optional<RateTable> fetchRateTable(String url) {
+        // Parse the body straight off the connection instead of binding every field of every rate to a String
+        Optional<RateTable> rateTable = rateClientCircuitBreaker.call(() -> {
+            try {
+                return restTemplate.execute(url, HttpMethod.GET,
+                        request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON)),
+                        response -> hnbRateListParser.parse(response.getBody()));
+            } catch (RestClientException e) {
+                throw new HnbRateServiceException("Rate service request failed", e);
+            }
+        });
 
-        ResponseEntity<HnbRate[]> eurRateResponse = restTemplate.getForEntity(url.toString(), HnbRate[].class);
-        HnbRate eurRateResponseBody = Objects.requireNonNull(eurRateResponse.getBody())[0];
+        return rateTable.map(this::saveRateTable);
+    }
 
-        String eurBuyingRateString = eurRateResponseBody.getExchangeRatePurchasing();
-        String eurBuyingRateStringCleaned = eurBuyingRateString.replace(",", ".");
+    private RateTable saveRateTable(RateTable rateTable) {
+        try {
+            return exchangeRateService.saveRateTable(rateTable);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance stored the same rate list first, use its rows
+            return exchangeRateService.findRateTable(rateTable.getApplicationDate())
+                    .filter(storedRateTable -> rateTable.getApplicationDate()
+                            .equals(storedRateTable.getApplicationDate()))
+                    .orElse(rateTable);
+        } catch (DataAccessException e) {
+            log.warn("Could not persist rate list for {}: {}", rateTable.getApplicationDate(), e.getMessage());
 
-        return new BigDecimal(eurBuyingRateStringCleaned);
+            return rateTable;
+        }
     }
 }
@@ -0,0 +1,17 @@
+package com.backend.webshop.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class IdempotencyKeyEvictionScheduler {
+
+    private final IdempotencyKeyStore idempotencyKeyStore;
+
+    @Scheduled(cron = "${app.idempotency.eviction-cron:-}", zone = "${app.zone}")
+    public void evictExpiredIdempotencyKeys() {
+        idempotencyKeyStore.evictExpired();
+    }
+}
@@ -0,0 +1,18 @@
+package com.backend.webshop.service;
+
+import java.util.Optional;
+
+public interface IdempotencyKeyStore {
+
+    // Empty when the key was free and is now held for the caller's request, otherwise what the key already holds
+    Optional<IdempotentResponse> reserve(String idempotencyKey, String requestFingerprint);
+
+    Optional<IdempotentResponse> find(String idempotencyKey);
+
+    void save(String idempotencyKey, IdempotentResponse idempotentResponse);
+
+    // Frees the key of a request that failed, so a retry runs it again
+    void release(String idempotencyKey);
+
+    void evictExpired();
+}
@@ -0,0 +1,18 @@
+package com.backend.webshop.service;
+
+import com.backend.webshop.controller.response.OrderResponse;
+import lombok.Value;
+
+@Value
+public class IdempotentResponse {
+
+    // SHA-256 of the request as JSON, stable across restarts and instances so it can be compared with stored responses
+    String requestFingerprint;
+
+    // Null while the request that reserved the key is still running
+    OrderResponse orderResponse;
+
+    public boolean isPending() {
+        return orderResponse == null;
+    }
+}
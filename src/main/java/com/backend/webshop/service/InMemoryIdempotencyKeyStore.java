@@ -0,0 +1,52 @@
+package com.backend.webshop.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Keeps the most recently used responses of this instance in a {@link BoundedTtlCache}.
+ */
+public class InMemoryIdempotencyKeyStore implements IdempotencyKeyStore {
+
+    private final BoundedTtlCache<String, IdempotentResponse> responses;
+
+    public InMemoryIdempotencyKeyStore(int maxEntries, Duration timeToLive, Clock clock) {
+        this.responses = new BoundedTtlCache<>(maxEntries, timeToLive, clock);
+    }
+
+    @Override
+    public synchronized Optional<IdempotentResponse> reserve(String idempotencyKey, String requestFingerprint) {
+        Optional<IdempotentResponse> stored = responses.get(idempotencyKey);
+
+        if (stored.isEmpty()) {
+            responses.put(idempotencyKey, new IdempotentResponse(requestFingerprint, null));
+        }
+
+        return stored;
+    }
+
+    @Override
+    public Optional<IdempotentResponse> find(String idempotencyKey) {
+        return responses.get(idempotencyKey);
+    }
+
+    @Override
+    public void save(String idempotencyKey, IdempotentResponse idempotentResponse) {
+        responses.put(idempotencyKey, idempotentResponse);
+    }
+
+    @Override
+    public void release(String idempotencyKey) {
+        responses.invalidate(idempotencyKey);
+    }
+
+    @Override
+    public void evictExpired() {
+        responses.evictExpired();
+    }
+
+    int size() {
+        return responses.size();
+    }
+}
@@ -0,0 +1,106 @@
+package com.backend.webshop.service;
+
+import com.backend.webshop.controller.response.OrderResponse;
+import com.backend.webshop.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Shares responses between all instances, expired rows are deleted by evictExpired.
+ */
+@Slf4j
+public class JpaIdempotencyKeyStore implements IdempotencyKeyStore {
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration timeToLive;
+    private final Clock clock;
+
+    public JpaIdempotencyKeyStore(IdempotencyKeyRepository idempotencyKeyRepository, ObjectMapper objectMapper,
+                                  Duration timeToLive, Clock clock) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.timeToLive = timeToLive;
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<IdempotentResponse> reserve(String idempotencyKey, String requestFingerprint) {
+        Instant now = clock.instant();
+        if (insert(idempotencyKey, requestFingerprint, now)) {
+            return Optional.empty();
+        }
+
+        Optional<IdempotentResponse> stored = find(idempotencyKey);
+        if (stored.isPresent()) {
+            return stored;
+        }
+
+        // The row expired before eviction removed it, or its request failed and released it meanwhile
+        idempotencyKeyRepository.deleteExpired(idempotencyKey, now);
+
+        return insert(idempotencyKey, requestFingerprint, now) ? Optional.empty() : find(idempotencyKey);
+    }
+
+    @Override
+    public Optional<IdempotentResponse> find(String idempotencyKey) {
+        return idempotencyKeyRepository.findByKeyAndExpiresAtAfter(idempotencyKey, clock.instant())
+                .map(stored -> new IdempotentResponse(stored.getRequestFingerprint(),
+                        stored.getResponse() == null ? null : readOrderResponse(stored.getResponse())));
+    }
+
+    @Override
+    public void save(String idempotencyKey, IdempotentResponse idempotentResponse) {
+        idempotencyKeyRepository.updateResponse(idempotencyKey,
+                writeOrderResponse(idempotentResponse.getOrderResponse()));
+    }
+
+    @Override
+    public void release(String idempotencyKey) {
+        idempotencyKeyRepository.deleteByKey(idempotencyKey);
+    }
+
+    @Override
+    @Transactional
+    public void evictExpired() {
+        int evicted = idempotencyKeyRepository.deleteExpired(clock.instant());
+
+        log.info("Evicted {} expired idempotency keys", evicted);
+    }
+
+    // Each insert runs in its own transaction, the primary key rejects it when the key is already held
+    private boolean insert(String idempotencyKey, String requestFingerprint, Instant now) {
+        try {
+            idempotencyKeyRepository.insert(idempotencyKey, requestFingerprint, now.plus(timeToLive));
+
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private OrderResponse readOrderResponse(String response) {
+        try {
+            return objectMapper.readValue(response, OrderResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String writeOrderResponse(OrderResponse orderResponse) {
+        try {
+            return objectMapper.writeValueAsString(orderResponse);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
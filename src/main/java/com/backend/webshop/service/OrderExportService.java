@@ -0,0 +1,87 @@
+package com.backend.webshop.service;
+
+import com.backend.webshop.controller.response.OrderResponse;
+import com.backend.webshop.model.Order;
+import com.backend.webshop.model.OrderItem;
+import com.backend.webshop.repository.OrderRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes orders as NDJSON while they are read from a single streamed query. Only the order being written is held
+ * in memory, so the heap used does not depend on the number of orders exported.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderExportService {
+
+    private final OrderRepository orderRepository;
+    private final OrderService orderService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    // A read-only transaction lets the driver keep the cursor open and fetch rows in chunks
+    @Transactional(readOnly = true)
+    public long exportOrders(Order.Status status, Instant createdFrom, Instant createdTo, OutputStream outputStream)
+            throws IOException {
+        Instant from = createdFrom == null ? Instant.EPOCH : createdFrom;
+        Instant to = createdTo == null ? clock.instant() : createdTo;
+        long exportedOrders = 0;
+
+        try (Stream<Object[]> rows = orderRepository.streamWithItems(status, from, to);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.setRootValueSeparator(null);
+
+            Iterator<Object[]> iterator = rows.iterator();
+            Order order = null;
+            List<OrderItem> orderItemList = new ArrayList<>();
+
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+
+                if (order != null && !order.getId().equals(((Order) row[0]).getId())) {
+                    write(generator, order, orderItemList);
+                    exportedOrders++;
+                    orderItemList.clear();
+                    // Written orders are no longer needed, dropping them keeps the persistence context small
+                    entityManager.clear();
+                }
+
+                order = (Order) row[0];
+                if (row[1] != null) {
+                    orderItemList.add((OrderItem) row[1]);
+                }
+            }
+
+            if (order != null) {
+                write(generator, order, orderItemList);
+                exportedOrders++;
+            }
+        }
+
+        return exportedOrders;
+    }
+
+    private void write(JsonGenerator generator, Order order, List<OrderItem> orderItemList) throws IOException {
+        OrderResponse orderResponse = Order.Status.SUBMITTED.equals(order.getStatus())
+                ? orderService.createSubmittedOrderResponse(order, orderItemList)
+                : orderService.createOrderResponse(order, orderItemList);
+
+        generator.writeObject(orderResponse);
+        generator.writeRaw('\n');
+    }
+}
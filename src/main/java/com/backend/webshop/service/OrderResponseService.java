@@ -1,36 +1,66 @@
 package com.backend.webshop.service;
 
+import com.backend.webshop.controller.response.OrderPageResponse;
 import com.backend.webshop.controller.response.OrderResponse;
-import com.backend.webshop.model.OrderItem;
+import com.backend.webshop.repository.CustomerRepository;
+import com.backend.webshop.repository.OrderFilter;
 import com.backend.webshop.repository.OrderItemRepository;
+import com.backend.webshop.repository.OrderKeyset;
 import com.backend.webshop.repository.OrderRepository;
 import com.backend.webshop.controller.request.OrderRequest;
 import com.backend.webshop.model.Order;
+import com.backend.webshop.model.RateTable;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.math.BigDecimal;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static com.backend.webshop.model.Order.Status.DRAFT;
 import static com.backend.webshop.model.Order.Status.SUBMITTED;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
 
 @Service
 @RequiredArgsConstructor
 public class OrderResponseService {
 
+    private static final int MAX_SUBMIT_ATTEMPTS = 3;
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String CURSOR_SEPARATOR = ",";
+
     private final OrderRepository orderRepository;
+    private final CustomerRepository customerRepository;
     private final OrderItemRepository orderItemRepository;
     private final OrderService orderService;
+    private final RateService rateService;
+
+    private final IdempotencyKeyStore idempotencyKeyStore;
+    private final ObjectMapper objectMapper;
+
+    private final SingleFlight<UUID, OrderResponse> submissionsInFlight = new SingleFlight<>();
+    private final SingleFlight<List<String>, OrderResponse> creationsInFlight = new SingleFlight<>();
 
     public OrderResponse getOrder(String orderId) {
-        Optional<Order> order = orderRepository.findById(UUID.fromString(orderId));
+        Optional<Order> order = orderRepository.findAggregateById(UUID.fromString(orderId));
 
         if (order.isPresent()) {
             if (DRAFT.equals(order.get().getStatus())) {
@@ -45,38 +75,148 @@ public class OrderResponseService {
         }
     }
 
+    public OrderPageResponse getOrders(OrderFilter filter, String after, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(BAD_REQUEST, "Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        // One extra order tells whether there is a next page without counting
+        List<Order> orders = orderRepository.findPage(filter, after == null ? null : decodeCursor(after), size + 1);
+        boolean hasNextPage = orders.size() > size;
+        List<Order> page = hasNextPage ? orders.subList(0, size) : orders;
+
+        OrderPageResponse orderPageResponse = new OrderPageResponse();
+        orderPageResponse.setOrderList(page.stream()
+                .map(orderService::createOrderSummaryResponse)
+                .collect(Collectors.toList()));
+        if (hasNextPage) {
+            Order last = page.get(page.size() - 1);
+            orderPageResponse.setNextCursor(encodeCursor(new OrderKeyset(last.getCreatedAt(), last.getId())));
+        }
+
+        return orderPageResponse;
+    }
+
+    public OrderPageResponse getCustomerOrders(String customerId, String after, int size) {
+        UUID id = UUID.fromString(customerId);
+
+        if (!customerRepository.existsById(id)) {
+            throw new ResponseStatusException(NOT_FOUND, "Customer not found");
+        }
+
+        OrderFilter filter = new OrderFilter();
+        filter.setCustomerId(id);
+
+        return getOrders(filter, after, size);
+    }
+
     public OrderResponse submitOrder(String orderId) {
-        Optional<Order> order = orderRepository.findById(UUID.fromString(orderId));
+        UUID id = UUID.fromString(orderId);
 
-        if (order.isPresent()) {
-            if (SUBMITTED.equals(order.get().getStatus())) {
-                return orderService.createOrderResponse(order.get());
-            }
+        // Concurrent submits of the same order wait for the one already pricing it instead of pricing it again
+        return submissionsInFlight.execute(id, () -> submitDraftOrder(id));
+    }
 
-            order.get().setStatus(Order.Status.SUBMITTED);
+    private String fingerprint(OrderRequest orderRequest) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(orderRequest));
 
-            BigDecimal totalPriceHrk = orderService.updateTotalPriceInHrk(order.get().getId().toString());
-            order.get().setTotalPriceHrk(totalPriceHrk);
-            BigDecimal totalPriceEur = orderService.updateTotalPriceInEur(totalPriceHrk);
-            order.get().setTotalPriceEur(totalPriceEur);
+            return String.format("%064x", new BigInteger(1, digest));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
-            orderRepository.save(order.get());
+    private String encodeCursor(OrderKeyset keyset) {
+        String cursor = keyset.getCreatedAt() + CURSOR_SEPARATOR + keyset.getId();
 
-            return orderService.createSubmittedOrderResponse(order.get());
-        } else {
-            throw new ResponseStatusException(NOT_FOUND, "Unable to find resource");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private OrderKeyset decodeCursor(String cursor) {
+        try {
+            String[] keyset = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split(CURSOR_SEPARATOR, 2);
+
+            return new OrderKeyset(Instant.parse(keyset[0]), UUID.fromString(keyset[1]));
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new ResponseStatusException(BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    private OrderResponse submitDraftOrder(UUID orderId) {
+        RateTable rateTable = null;
+
+        for (int attempt = 0; attempt < MAX_SUBMIT_ATTEMPTS; attempt++) {
+            Order order = orderRepository.findAggregateById(orderId)
+                    .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Unable to find resource"));
+
+            if (!SUBMITTED.equals(order.getStatus()) && rateTable == null) {
+                rateTable = rateService.getRateTable();
+            }
+
+            if (SUBMITTED.equals(order.getStatus()) || orderService.submitDraftOrder(order, rateTable)) {
+                return orderService.createSubmittedOrderResponse(order);
+            }
+        }
+
+        throw new ResponseStatusException(CONFLICT, "Order was modified while it was being submitted");
+    }
+
+    public OrderResponse postOrder(OrderRequest orderRequest, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return postOrder(orderRequest);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new ResponseStatusException(BAD_REQUEST, "Idempotency-Key must have 1 to 255 characters");
         }
+
+        // A retry with the same key gets the response of the first request, the order is not created again.
+        // Only identical requests share a call in flight, a different one under the same key is rejected by reserve.
+        String requestFingerprint = fingerprint(orderRequest);
+        return creationsInFlight.execute(List.of(idempotencyKey, requestFingerprint), () -> {
+            // Reserved before the order is created, so requests racing on another instance cannot create it too
+            Optional<IdempotentResponse> previousResponse =
+                    idempotencyKeyStore.reserve(idempotencyKey, requestFingerprint);
+
+            if (previousResponse.isPresent()) {
+                if (!previousResponse.get().getRequestFingerprint().equals(requestFingerprint)) {
+                    throw new ResponseStatusException(UNPROCESSABLE_ENTITY,
+                            "Idempotency-Key was already used for a different request");
+                }
+                if (previousResponse.get().isPending()) {
+                    throw new ResponseStatusException(CONFLICT,
+                            "A request with this Idempotency-Key is still being processed");
+                }
+                return previousResponse.get().getOrderResponse();
+            }
+
+            OrderResponse orderResponse;
+            try {
+                orderResponse = postOrder(orderRequest);
+            } catch (RuntimeException e) {
+                idempotencyKeyStore.release(idempotencyKey);
+                throw e;
+            }
+            idempotencyKeyStore.save(idempotencyKey, new IdempotentResponse(requestFingerprint, orderResponse));
+
+            return orderResponse;
+        });
     }
 
     public OrderResponse postOrder(OrderRequest orderRequest) {
-        Boolean allProductsAvailable = orderService.checkIfAllProductsAvailable(orderRequest.getOrderItemList());
+        ProductLookup products = orderService.findProducts(orderRequest.getOrderItemList());
+        Boolean allProductsAvailable =
+                orderService.checkIfAllProductsAvailable(orderRequest.getOrderItemList(), products);
 
         if (Boolean.TRUE.equals(allProductsAvailable)) {
             Order order = orderService.createOrder(orderRequest.getCustomerId());
 
             orderRepository.save(order);
 
-            orderService.saveOrderItemsToDb(orderRequest.getOrderItemList(), order.getId().toString());
+            orderService.saveOrderItemsToDb(orderRequest.getOrderItemList(), products, order);
 
             return orderService.createOrderResponse(order);
         } else {
@@ -85,17 +225,15 @@ public class OrderResponseService {
     }
 
     public OrderResponse putOrder(String orderId, OrderRequest orderRequest) {
-        Boolean allProductsAvailable = orderService.checkIfAllProductsAvailable(orderRequest.getOrderItemList());
+        ProductLookup products = orderService.findProducts(orderRequest.getOrderItemList());
+        Boolean allProductsAvailable =
+                orderService.checkIfAllProductsAvailable(orderRequest.getOrderItemList(), products);
 
         if (Boolean.TRUE.equals(allProductsAvailable)) {
 
-            Optional<Order> order = orderRepository.findById(UUID.fromString(orderId));
+            Optional<Order> order = orderService.addOrderItems(orderId, orderRequest.getOrderItemList(), products);
 
             if (order.isPresent()) {
-                if (DRAFT.equals(order.get().getStatus())) {
-                    orderService.saveOrderItemsToDb(orderRequest.getOrderItemList(), orderId);
-                }
-
                 return orderService.createOrderResponse(order.get());
             } else {
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unable to find resource");
@@ -105,12 +243,11 @@ public class OrderResponseService {
         }
     }
 
+    @Transactional
     public void deleteOrder(String orderId) {
-        Optional<Order> order = orderRepository.findById(UUID.fromString(orderId));
-
-        List<OrderItem> orderItemList = orderService.findItemsFromAnOrder(orderId);
-        orderItemRepository.deleteAll(orderItemList);
+        UUID id = UUID.fromString(orderId);
 
-        order.ifPresent(orderRepository::delete);
+        orderItemRepository.deleteByOrderId(id);
+        orderRepository.deleteOrderById(id);
     }
 }
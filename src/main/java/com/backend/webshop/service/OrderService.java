@@ -1,23 +1,29 @@
 package com.backend.webshop.service;
 
 import com.backend.webshop.controller.response.OrderResponse;
+import com.backend.webshop.controller.response.OrderSummaryResponse;
 import com.backend.webshop.model.OrderItem;
 import com.backend.webshop.model.Product;
+import com.backend.webshop.model.CurrencyRate;
+import com.backend.webshop.model.RateTable;
 import com.backend.webshop.repository.CustomerRepository;
+import com.backend.webshop.repository.ExchangeRateRepository;
 import com.backend.webshop.repository.OrderItemRepository;
 import com.backend.webshop.repository.OrderRepository;
-import com.backend.webshop.repository.ProductRepository;
 import com.backend.webshop.controller.request.OrderItemRequest;
 import com.backend.webshop.controller.response.OrderItemResponse;
 import com.backend.webshop.model.Customer;
 import com.backend.webshop.model.Order;
+import com.backend.webshop.service.exception.HnbRateServiceException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -29,22 +35,30 @@ public class OrderService {
 
     private final CustomerRepository customerRepository;
     private final OrderRepository orderRepository;
-    private final ProductRepository productRepository;
     private final OrderItemRepository orderItemRepository;
+    private final ExchangeRateRepository exchangeRateRepository;
     private final RateService rateService;
+    private final ProductCache productCache;
+
+    public ProductLookup findProducts(List<OrderItemRequest> orderItemRequestList) {
+        return ProductLookup.load(productCache, orderItemRequestList);
+    }
 
     public Boolean checkIfAllProductsAvailable(List<OrderItemRequest> orderItemRequestList) {
-        final Boolean[] allProductsAvailable = {Boolean.TRUE};
+        return checkIfAllProductsAvailable(orderItemRequestList, findProducts(orderItemRequestList));
+    }
 
-        orderItemRequestList.forEach(item -> {
-            Optional<Product> product = productRepository.findById(UUID.fromString(item.getProductId()));
+    public Boolean checkIfAllProductsAvailable(List<OrderItemRequest> orderItemRequestList,
+                                               ProductLookup products) {
+        for (OrderItemRequest item : orderItemRequestList) {
+            Product product = products.find(item);
 
-            if (product.isEmpty() || Boolean.FALSE.equals(product.get().getIsAvailable())) {
-                allProductsAvailable[0] = Boolean.FALSE;
+            if (product == null || !Boolean.TRUE.equals(product.getIsAvailable())) {
+                return Boolean.FALSE;
             }
-        });
+        }
 
-        return allProductsAvailable[0];
+        return Boolean.TRUE;
     }
 
     public Order createOrder(String customerId) {
@@ -61,23 +75,48 @@ public class OrderService {
         }
     }
 
+    @Transactional
     public void saveOrderItemsToDb(List<OrderItemRequest> orderItemRequestList, String orderId) {
         Optional<Order> order = orderRepository.findById(UUID.fromString(orderId));
 
-        if (order.isPresent()) {
-            orderItemRequestList.forEach(item -> {
-                Optional<Product> product = productRepository.findById(UUID.fromString(item.getProductId()));
+        order.ifPresent(value -> saveOrderItemsToDb(orderItemRequestList, findProducts(orderItemRequestList), value));
+    }
 
-                if (product.isPresent() && Boolean.TRUE.equals(product.get().getIsAvailable())) {
-                    OrderItem orderItem = new OrderItem();
-                    orderItem.setOrder(order.get());
-                    orderItem.setProduct(product.get());
-                    orderItem.setQuantity(item.getQuantity());
+    @Transactional
+    public void saveOrderItemsToDb(List<OrderItemRequest> orderItemRequestList, ProductLookup products,
+                                   Order order) {
+        List<OrderItem> orderItemList = new ArrayList<>(orderItemRequestList.size());
 
-                    orderItemRepository.save(orderItem);
-                }
-            });
-        }
+        orderItemRequestList.forEach(item -> {
+            Product product = products.find(item);
+
+            if (product != null && Boolean.TRUE.equals(product.getIsAvailable())) {
+                orderItemList.add(createOrderItem(order, product, item.getQuantity()));
+            }
+        });
+
+        // Ids are generated in memory, so Hibernate can send the inserts as JDBC batches on flush
+        orderItemRepository.saveAll(orderItemList);
+        order.getItems().addAll(orderItemList);
+    }
+
+    public OrderItem createOrderItem(Order order, Product product, Long quantity) {
+        OrderItem orderItem = new OrderItem();
+        orderItem.setOrder(order);
+        orderItem.setProduct(product);
+        orderItem.setQuantity(quantity);
+
+        return orderItem;
+    }
+
+    @Transactional
+    public void saveOrders(List<Order> orders) {
+        List<OrderItem> orderItemList = new ArrayList<>();
+        orders.forEach(order -> orderItemList.addAll(order.getItems()));
+
+        // Orders and items all get their ids in memory, both are inserted as JDBC batches on flush
+        orderRepository.saveAll(orders);
+        orderItemRepository.saveAll(orderItemList);
     }
 
     public BigDecimal updateTotalPriceInHrk(String orderId) {
@@ -92,29 +131,77 @@ public class OrderService {
         }
     }
 
-    public BigDecimal updateTotalPriceInEur(BigDecimal totalPriceHrk) {
+    public void updateTotalPriceInEur(Order order, RateTable rateTable) {
         BigDecimal totalPriceEur = BigDecimal.valueOf(0.00);
 
-        // If totalPriceEur is greater than 0 => comparedValues = 1
-        int comparedValues = totalPriceHrk.compareTo(new BigDecimal("0.00"));
+        // If totalPriceHrk is greater than 0 => comparedValues = 1
+        int comparedValues = order.getTotalPriceHrk().compareTo(new BigDecimal("0.00"));
         if (comparedValues == 1) {
-            totalPriceEur = convertHrkToEur(totalPriceHrk);
+            CurrencyRate eurRate = rateTable.getRate("EUR")
+                    .orElseThrow(() -> new HnbRateServiceException("No exchange rate for currency EUR"));
+
+            // Snapshot the rate so the order can be re-priced or reported on without calling HNB again
+            order.setExchangeRateEur(eurRate.getBuyingRatePerUnit());
+            if (eurRate.getExchangeRateId() != null) {
+                order.setExchangeRate(exchangeRateRepository.getById(eurRate.getExchangeRateId()));
+            }
+
+            totalPriceEur = convertHrkToEur(order.getTotalPriceHrk(), eurRate.getBuyingRatePerUnit());
+        }
+
+        order.setTotalPriceEur(totalPriceEur);
+    }
+
+    @Transactional
+    public Optional<Order> addOrderItems(String orderId, List<OrderItemRequest> orderItemRequestList,
+                                         ProductLookup products) {
+        UUID id = UUID.fromString(orderId);
+        // Row stays locked until commit and a submit priced against the old version can no longer go through
+        boolean isDraft = orderRepository.incrementVersionByIdAndStatus(id, Order.Status.DRAFT) == 1;
+        Optional<Order> order = orderRepository.findAggregateById(id);
+
+        if (isDraft) {
+            order.ifPresent(value -> saveOrderItemsToDb(orderItemRequestList, products, value));
         }
 
-        return totalPriceEur;
+        return order;
     }
 
-    public List<OrderItem> findItemsFromAnOrder(String orderId) {
-        ArrayList<OrderItem> listOrderItemsFromAnOrder = new ArrayList<>();
+    // The rate table is fetched by the caller, a slow rate service must not hold the transaction's connection
+    @Transactional
+    public boolean submitDraftOrder(Order order, RateTable rateTable) {
+        Order pricedOrder = new Order();
+        pricedOrder.setTotalPriceHrk(updateTotalPriceInHrk(order.getId().toString()));
+        updateTotalPriceInEur(pricedOrder, rateTable);
+
+        // Only succeeds if nobody submitted or modified the order since it was read and priced
+        int updated = orderRepository.submitDraftOrder(order.getId(), order.getVersion(),
+                Order.Status.DRAFT, Order.Status.SUBMITTED,
+                pricedOrder.getTotalPriceHrk(), pricedOrder.getTotalPriceEur(), pricedOrder.getExchangeRate(),
+                pricedOrder.getExchangeRateEur());
+
+        if (updated == 0) {
+            return false;
+        }
 
-        listOrderItemsFromAnOrder.addAll(orderItemRepository.findOrderItemsByOrder_Id(UUID.fromString(orderId)));
+        order.setStatus(Order.Status.SUBMITTED);
+        order.setVersion(order.getVersion() + 1);
+        order.setTotalPriceHrk(pricedOrder.getTotalPriceHrk());
+        order.setTotalPriceEur(pricedOrder.getTotalPriceEur());
+        order.setExchangeRate(pricedOrder.getExchangeRate());
+        order.setExchangeRateEur(pricedOrder.getExchangeRateEur());
 
-        return listOrderItemsFromAnOrder;
+        return true;
     }
 
-    public List<OrderItemResponse> populateOrderItemResponseList(String orderId) {
-        List<OrderItem> orderItemList = findItemsFromAnOrder(orderId);
+    @Transactional
+    public int deleteDraftOrdersCreatedBefore(Instant createdBefore) {
+        orderItemRepository.deleteByOrderStatusAndOrderCreatedAtBefore(Order.Status.DRAFT, createdBefore);
+
+        return orderRepository.deleteByStatusAndCreatedAtBefore(Order.Status.DRAFT, createdBefore);
+    }
 
+    public List<OrderItemResponse> populateOrderItemResponseList(List<OrderItem> orderItemList) {
         ArrayList<OrderItemResponse> orderItemResponseList = new ArrayList<>();
 
         for (OrderItem orderItem : orderItemList) {
@@ -138,24 +225,31 @@ public class OrderService {
     }
 
     public BigDecimal calculateTotalPriceInHrk(String orderId) {
-        List<OrderItem> itemsInAnOrder = findItemsFromAnOrder(orderId);
-
-        BigDecimal totalPriceInHrk = BigDecimal.valueOf(0.00);
+        // Prices are stored with two decimals, so summing unrounded line totals matches rounding each line first
+        BigDecimal totalPriceInHrk = orderItemRepository.sumTotalPriceHrkByOrderId(UUID.fromString(orderId));
 
-        for (OrderItem item : itemsInAnOrder) {
-            totalPriceInHrk = totalPriceInHrk.add(calculateItemPriceInHrk(item));
+        if (totalPriceInHrk == null) {
+            totalPriceInHrk = BigDecimal.valueOf(0.00);
         }
 
         return totalPriceInHrk.setScale(2, RoundingMode.HALF_UP);
     }
 
     public BigDecimal convertHrkToEur(BigDecimal totalPriceInHrk) {
-        BigDecimal eurBuyingRate = rateService.getRateForEur();
+        return convertHrkToEur(totalPriceInHrk, rateService.getRateForEur());
+    }
+
+    public BigDecimal convertHrkToEur(BigDecimal totalPriceInHrk, BigDecimal eurBuyingRate) {
         BigDecimal totalPriceInEur = totalPriceInHrk.divide(eurBuyingRate, RoundingMode.HALF_UP);
         return totalPriceInEur.setScale(2, RoundingMode.HALF_UP);
     }
 
     public OrderResponse createOrderResponse(Order order) {
+        // Built from the items already held by the order, callers load it with OrderRepository.findAggregateById
+        return createOrderResponse(order, order.getItems());
+    }
+
+    public OrderResponse createOrderResponse(Order order, List<OrderItem> orderItemList) {
         OrderResponse orderResponse = new OrderResponse();
         orderResponse.setCustomerId(order.getCustomer().getId().toString());
         orderResponse.setCustomerFirstName(order.getCustomer().getFirstName());
@@ -163,16 +257,34 @@ public class OrderService {
         orderResponse.setOrderId(order.getId().toString());
         orderResponse.setStatus(order.getStatus());
 
-        List<OrderItemResponse> orderItemResponseList = populateOrderItemResponseList(order.getId().toString());
+        List<OrderItemResponse> orderItemResponseList = populateOrderItemResponseList(orderItemList);
         orderResponse.setOrderItemList(orderItemResponseList);
 
         return orderResponse;
     }
 
+    public OrderSummaryResponse createOrderSummaryResponse(Order order) {
+        OrderSummaryResponse orderSummaryResponse = new OrderSummaryResponse();
+        orderSummaryResponse.setOrderId(order.getId().toString());
+        // Reading the id does not initialize the lazy customer
+        orderSummaryResponse.setCustomerId(order.getCustomer().getId().toString());
+        orderSummaryResponse.setStatus(order.getStatus());
+        orderSummaryResponse.setCreatedAt(order.getCreatedAt());
+        orderSummaryResponse.setTotalPriceHrk(order.getTotalPriceHrk());
+        orderSummaryResponse.setTotalPriceEur(order.getTotalPriceEur());
+
+        return orderSummaryResponse;
+    }
+
     public OrderResponse createSubmittedOrderResponse(Order order) {
-        OrderResponse orderResponse = createOrderResponse(order);
+        return createSubmittedOrderResponse(order, order.getItems());
+    }
+
+    public OrderResponse createSubmittedOrderResponse(Order order, List<OrderItem> orderItemList) {
+        OrderResponse orderResponse = createOrderResponse(order, orderItemList);
         orderResponse.setTotalPriceHrk(order.getTotalPriceHrk());
         orderResponse.setTotalPriceEur(order.getTotalPriceEur());
+        orderResponse.setExchangeRateEur(order.getExchangeRateEur());
 
         return orderResponse;
     }
@@ -0,0 +1,176 @@
+package com.backend.webshop.service;
+
+import com.backend.webshop.model.Product;
+import com.backend.webshop.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of products by id for the product endpoints and the order path, with an index from product
+ * code to id for lookups by code. Cached products are detached and shared between requests, they are only read,
+ * never modified or saved.
+ */
+@Component
+public class ProductCache {
+
+    private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    private final BoundedTtlCache<UUID, Product> products;
+    private final BoundedTtlCache<String, UUID> productIdsByCode;
+
+    // Bumped by every invalidation, a load that started before it must not put its possibly stale result
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public ProductCache(ProductRepository productRepository, EntityManager entityManager, MeterRegistry meterRegistry,
+                        Clock clock, @Value("${app.product-cache.max-entries:10000}") int maxEntries,
+                        @Value("${app.product-cache.ttl:5m}") Duration timeToLive) {
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.products = new BoundedTtlCache<>(maxEntries, timeToLive, clock);
+        this.productIdsByCode = new BoundedTtlCache<>(maxEntries, timeToLive, clock);
+
+        this.hitCounter = meterRegistry.counter("webshop.product.cache", "result", "hit");
+        this.missCounter = meterRegistry.counter("webshop.product.cache", "result", "miss");
+        FunctionCounter.builder("webshop.product.cache.evictions", products, BoundedTtlCache::evictionCount)
+                .register(meterRegistry);
+        Gauge.builder("webshop.product.cache.size", products, BoundedTtlCache::size)
+                .register(meterRegistry);
+        Gauge.builder("webshop.product.cache.hit.ratio", this, ProductCache::hitRatio)
+                .register(meterRegistry);
+    }
+
+    public Optional<Product> get(UUID productId) {
+        return Optional.ofNullable(getAll(Set.of(productId)).get(productId));
+    }
+
+    // Unknown ids are left out of the result
+    public Map<UUID, Product> getAll(Collection<UUID> productIds) {
+        Map<UUID, Product> found = new HashMap<>();
+        Set<UUID> missing = new HashSet<>();
+
+        for (UUID productId : productIds) {
+            Optional<Product> cached = products.get(productId);
+
+            if (cached.isPresent()) {
+                found.put(productId, cached.get());
+            } else {
+                missing.add(productId);
+            }
+        }
+
+        hitCounter.increment(found.size());
+        missCounter.increment(missing.size());
+
+        if (!missing.isEmpty()) {
+            long generation = invalidations.get();
+            Map<UUID, Product> loaded = new HashMap<>();
+            productRepository.findAllById(missing).forEach(product -> loaded.put(product.getId(), detach(product)));
+
+            synchronized (products) {
+                if (invalidations.get() == generation) {
+                    loaded.forEach(products::put);
+                }
+            }
+            found.putAll(loaded);
+        }
+
+        return found;
+    }
+
+    public Optional<Product> getByCode(String code) {
+        return Optional.ofNullable(getAllByCode(Set.of(code)).get(code));
+    }
+
+    // Indexed codes are served by id and checked against the product, unknown codes are left out of the result
+    public Map<String, Product> getAllByCode(Collection<String> codes) {
+        Map<String, UUID> indexed = new HashMap<>();
+        Set<String> missing = new HashSet<>();
+
+        for (String code : codes) {
+            Optional<UUID> productId = productIdsByCode.get(code);
+
+            if (productId.isPresent()) {
+                indexed.put(code, productId.get());
+            } else {
+                missing.add(code);
+            }
+        }
+
+        Map<String, Product> found = new HashMap<>();
+        Map<UUID, Product> indexedProducts = getAll(indexed.values());
+
+        indexed.forEach((code, productId) -> {
+            Product product = indexedProducts.get(productId);
+
+            // Deleted or recoded since it was indexed through another instance
+            if (product != null && code.equals(product.getCode())) {
+                found.put(code, product);
+            } else {
+                productIdsByCode.invalidate(code);
+                missing.add(code);
+            }
+        });
+
+        if (!missing.isEmpty()) {
+            missCounter.increment(missing.size());
+
+            long generation = invalidations.get();
+            List<Product> loaded = productRepository.findAllByCodeIn(missing);
+            loaded.forEach(this::detach);
+
+            synchronized (products) {
+                if (invalidations.get() == generation) {
+                    loaded.forEach(product -> {
+                        products.put(product.getId(), product);
+                        productIdsByCode.put(product.getCode(), product.getId());
+                    });
+                }
+            }
+            loaded.forEach(product -> found.put(product.getCode(), product));
+        }
+
+        return found;
+    }
+
+    // Called once the change is committed, later reads on this instance load the product again
+    public void invalidate(UUID productId) {
+        synchronized (products) {
+            invalidations.incrementAndGet();
+            products.get(productId).ifPresent(product -> productIdsByCode.invalidate(product.getCode()));
+            products.invalidate(productId);
+        }
+    }
+
+    // Shared with other requests, so it must not stay attached to the persistence context of the loading one
+    private Product detach(Product product) {
+        entityManager.detach(product);
+
+        return product;
+    }
+
+    private double hitRatio() {
+        double requests = hitCounter.count() + missCounter.count();
+
+        return requests == 0 ? 0 : hitCounter.count() / requests;
+    }
+}
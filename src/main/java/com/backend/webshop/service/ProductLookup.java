@@ -0,0 +1,61 @@
+package com.backend.webshop.service;
+
+import com.backend.webshop.controller.request.OrderItemRequest;
+import com.backend.webshop.model.Product;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Products of a set of order lines, a line references its product either by id or by code. Ids and codes are each
+ * resolved with a single product cache lookup, whatever the number of lines.
+ */
+@RequiredArgsConstructor
+public class ProductLookup {
+
+    private final Map<UUID, Product> productsById;
+    private final Map<String, Product> productsByCode;
+
+    public static ProductLookup load(ProductCache productCache, Collection<OrderItemRequest> orderItemRequestList) {
+        Set<UUID> productIds = new HashSet<>();
+        Set<String> productCodes = new HashSet<>();
+
+        for (OrderItemRequest item : orderItemRequestList) {
+            if (item.getProductId() != null) {
+                UUID productId = parseUuid(item.getProductId());
+                if (productId != null) {
+                    productIds.add(productId);
+                }
+            } else if (item.getProductCode() != null) {
+                productCodes.add(item.getProductCode());
+            }
+        }
+
+        return new ProductLookup(
+                productIds.isEmpty() ? Map.of() : productCache.getAll(productIds),
+                productCodes.isEmpty() ? Map.of() : productCache.getAllByCode(productCodes));
+    }
+
+    // Null for an unknown product or a line without a product reference, the id wins when a line has both
+    public Product find(OrderItemRequest item) {
+        if (item.getProductId() != null) {
+            UUID productId = parseUuid(item.getProductId());
+
+            return productId == null ? null : productsById.get(productId);
+        }
+
+        return item.getProductCode() == null ? null : productsByCode.get(item.getProductCode());
+    }
+
+    private static UUID parseUuid(String id) {
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.backend.webshop.service;
+
+import com.backend.webshop.model.Product;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Inverted index of product name, description and code terms held in memory. Every query term matches the indexed
+ * terms it is a prefix of, a product matches when all query terms do. Matches come in index order, which is id
+ * order after a rebuild, followed by products written since.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index = new Index();
+
+    // Writes made while a rebuild scans the products, replayed on the rebuilt index before it replaces this one
+    private List<Consumer<Index>> writesDuringRebuild;
+
+    public ProductSearchIndex(MeterRegistry meterRegistry) {
+        Gauge.builder("webshop.product.search.index.size", this, ProductSearchIndex::size)
+                .register(meterRegistry);
+    }
+
+    public void put(Product product) {
+        UUID productId = product.getId();
+        Set<String> terms = tokenize(product.getName(), product.getDescription(), product.getCode());
+        boolean isAvailable = Boolean.TRUE.equals(product.getIsAvailable());
+
+        write(index -> index.put(productId, terms, isAvailable));
+    }
+
+    public void remove(UUID productId) {
+        write(index -> index.remove(productId));
+    }
+
+    // Searches keep using the current index until the rebuilt one replaces it
+    public synchronized int rebuild(Stream<Product> products) {
+        setWritesDuringRebuild(new ArrayList<>());
+        try {
+            Index rebuilt = new Index();
+            products.forEach(product -> rebuilt.put(product.getId(),
+                    tokenize(product.getName(), product.getDescription(), product.getCode()),
+                    Boolean.TRUE.equals(product.getIsAvailable())));
+
+            lock.writeLock().lock();
+            try {
+                writesDuringRebuild.forEach(write -> write.accept(rebuilt));
+                index = rebuilt;
+
+                return rebuilt.size();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            setWritesDuringRebuild(null);
+        }
+    }
+
+    public Matches search(String query, boolean availableOnly, int limit) {
+        Set<String> queryTerms = tokenize(query);
+
+        lock.readLock().lock();
+        try {
+            BitSet matches = null;
+
+            for (String queryTerm : queryTerms) {
+                BitSet termMatches = index.findPrefixed(queryTerm);
+                if (matches == null) {
+                    matches = termMatches;
+                } else {
+                    matches.and(termMatches);
+                }
+
+                if (matches.isEmpty()) {
+                    break;
+                }
+            }
+
+            if (matches == null) {
+                return new Matches(List.of(), 0);
+            }
+            if (availableOnly) {
+                matches.and(index.available);
+            }
+
+            int total = matches.cardinality();
+            List<UUID> productIds = new ArrayList<>(Math.min(limit, total));
+            for (int document = matches.nextSetBit(0); document >= 0 && productIds.size() < limit;
+                 document = matches.nextSetBit(document + 1)) {
+                productIds.add(index.documents.get(document).productId);
+            }
+
+            return new Matches(productIds, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Lower case without diacritics, so "Čekić" is found by "cekic"
+    static Set<String> tokenize(String... texts) {
+        Set<String> terms = new LinkedHashSet<>();
+
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+
+            String normalized = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                    .replaceAll("")
+                    .toLowerCase(Locale.ROOT)
+                    .replace('đ', 'd');
+            for (String term : NON_WORD.split(normalized)) {
+                if (!term.isEmpty()) {
+                    terms.add(term);
+                }
+            }
+        }
+
+        return terms;
+    }
+
+    private void setWritesDuringRebuild(List<Consumer<Index>> writes) {
+        lock.writeLock().lock();
+        try {
+            writesDuringRebuild = writes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void write(Consumer<Index> write) {
+        lock.writeLock().lock();
+        try {
+            write.accept(index);
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.add(write);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Value
+    public static class Matches {
+        // At most the requested limit, in index order
+        List<UUID> productIds;
+        int total;
+    }
+
+    private static class Index {
+
+        private final TreeMap<String, Postings> postingsByTerm = new TreeMap<>();
+        private final Map<UUID, Integer> documentsByProductId = new HashMap<>();
+        // Positions are document numbers, a removed or updated product leaves a null behind until the next rebuild
+        private final List<Document> documents = new ArrayList<>();
+        private final BitSet available = new BitSet();
+
+        private void put(UUID productId, Set<String> terms, boolean isAvailable) {
+            remove(productId);
+
+            int document = documents.size();
+            Postings[] postings = new Postings[terms.size()];
+            int i = 0;
+            for (String term : terms) {
+                postings[i] = postingsByTerm.computeIfAbsent(term, Postings::new);
+                postings[i++].add(document);
+            }
+
+            documents.add(new Document(productId, postings));
+            documentsByProductId.put(productId, document);
+            available.set(document, isAvailable);
+        }
+
+        private void remove(UUID productId) {
+            Integer document = documentsByProductId.remove(productId);
+            if (document == null) {
+                return;
+            }
+
+            for (Postings postings : documents.set(document, null).postings) {
+                postings.remove(document);
+                if (postings.size == 0) {
+                    postingsByTerm.remove(postings.term);
+                }
+            }
+            available.clear(document);
+        }
+
+        // Every indexed term starting with prefix, including prefix itself
+        private BitSet findPrefixed(String prefix) {
+            BitSet documentSet = new BitSet(documents.size());
+            postingsByTerm.subMap(prefix, prefix + Character.MAX_VALUE)
+                    .values()
+                    .forEach(postings -> postings.addTo(documentSet));
+
+            return documentSet;
+        }
+
+        private int size() {
+            return documentsByProductId.size();
+        }
+    }
+
+    private static class Document {
+
+        private final UUID productId;
+        private final Postings[] postings;
+
+        private Document(UUID productId, Postings[] postings) {
+            this.productId = productId;
+            this.postings = postings;
+        }
+    }
+
+    // Ascending document numbers of one term, new documents always get the highest number so adding is an append
+    private static class Postings {
+
+        private final String term;
+        private int[] documents = new int[2];
+        private int size;
+
+        private Postings(String term) {
+            this.term = term;
+        }
+
+        private void add(int document) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+            }
+            documents[size++] = document;
+        }
+
+        private void remove(int document) {
+            int position = Arrays.binarySearch(documents, 0, size, document);
+            if (position >= 0) {
+                System.arraycopy(documents, position + 1, documents, position, size - position - 1);
+                size--;
+            }
+        }
+
+        private void addTo(BitSet documentSet) {
+            for (int i = 0; i < size; i++) {
+                documentSet.set(documents[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.backend.webshop.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndexScheduler {
+
+    private final ProductService productService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildProductSearchIndex() {
+        log.info("Indexed {} products for search", productService.rebuildSearchIndex());
+    }
+
+    // Picks up products written through other instances
+    @Scheduled(cron = "${app.product-search.rebuild-cron:-}", zone = "${app.zone}")
+    public void rebuildProductSearchIndex() {
+        buildProductSearchIndex();
+    }
+}
@@ -5,22 +5,43 @@ import com.backend.webshop.model.Product;
 import com.backend.webshop.repository.ProductRepository;
 import com.backend.webshop.controller.request.ProductRequest;
 import com.backend.webshop.controller.response.ProductResponse;
+import com.backend.webshop.controller.response.ProductSearchResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import javax.persistence.EntityManager;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
+    private static final int MAX_SEARCH_SIZE = 100;
+
     private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final EntityManager entityManager;
 
     public ProductResponse getProduct(String productId) {
-        Optional<Product> product = productRepository.findById(UUID.fromString(productId));
+        Optional<Product> product = productCache.get(UUID.fromString(productId));
+
+        if (product.isPresent()) {
+            return createProductResponse(product.get());
+        } else {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found");
+        }
+    }
+
+    public ProductResponse getProductByCode(String code) {
+        Optional<Product> product = productCache.getByCode(code);
 
         if (product.isPresent()) {
             return createProductResponse(product.get());
@@ -38,6 +59,7 @@ public class ProductService {
         product.setIsAvailable(productRequest.getIsAvailable());
 
         Product savedProduct = productRepository.save(product);
+        productSearchIndex.put(savedProduct);
 
         return createProductResponse(savedProduct);
     }
@@ -67,6 +89,8 @@ public class ProductService {
             }
 
             Product savedProduct = productRepository.save(product.get());
+            productCache.invalidate(savedProduct.getId());
+            productSearchIndex.put(savedProduct);
 
             return createProductResponse(savedProduct);
         } else {
@@ -77,7 +101,41 @@ public class ProductService {
     public void deleteProduct(String productId) {
         Optional<Product> product = productRepository.findById(UUID.fromString(productId));
 
-        product.ifPresent(item -> productRepository.delete(item));
+        product.ifPresent(item -> {
+            productRepository.delete(item);
+            productCache.invalidate(item.getId());
+            productSearchIndex.remove(item.getId());
+        });
+    }
+
+    public ProductSearchResponse searchProducts(String query, boolean availableOnly, int size) {
+        if (size < 1 || size > MAX_SEARCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Search size must be between 1 and " + MAX_SEARCH_SIZE);
+        }
+        if (ProductSearchIndex.tokenize(query).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search query has no words");
+        }
+
+        ProductSearchIndex.Matches matches = productSearchIndex.search(query, availableOnly, size);
+        Map<UUID, Product> products = productCache.getAll(matches.getProductIds());
+
+        ProductSearchResponse productSearchResponse = new ProductSearchResponse();
+        productSearchResponse.setProductList(matches.getProductIds().stream()
+                .filter(products::containsKey)
+                .map(productId -> createProductResponse(products.get(productId)))
+                .collect(Collectors.toList()));
+        productSearchResponse.setTotalMatches(matches.getTotal());
+
+        return productSearchResponse;
+    }
+
+    // Scanned products are detached once indexed, so the persistence context does not grow with the catalogue
+    @Transactional(readOnly = true)
+    public int rebuildSearchIndex() {
+        try (Stream<Product> products = productRepository.streamAll()) {
+            return productSearchIndex.rebuild(products.peek(entityManager::detach));
+        }
     }
 
     public ProductResponse createProductResponse(Product savedProduct) {
@@ -0,0 +1,41 @@
+package com.backend.webshop.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RatePrefetchScheduler {
+
+    private final HnbRateServiceImpl hnbRateService;
+    private final CachingRateService cachingRateService;
+    @Qualifier("rateClock")
+    private final Clock rateClock;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        cachingRateService.refreshAsync();
+    }
+
+    @Scheduled(cron = "${app.rate-api.prefetch-cron}", zone = "${app.rate-api.zone}")
+    public void prefetchNextRateList() {
+        LocalDate nextApplicationDate = LocalDate.now(rateClock).plusDays(1);
+
+        try {
+            hnbRateService.getRateTable(nextApplicationDate).ifPresent(cachingRateService::putNextRateTable);
+        } catch (RuntimeException e) {
+            log.warn("Could not prefetch rate list for {}: {}", nextApplicationDate, e.getMessage());
+        }
+
+        cachingRateService.refreshAsync();
+    }
+}
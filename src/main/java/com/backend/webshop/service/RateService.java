@@ -1,10 +1,23 @@
 package com.backend.webshop.service;
 
+import com.backend.webshop.model.RateTable;
+import com.backend.webshop.service.exception.HnbRateServiceException;
+
 import java.math.BigDecimal;
 
 
 public interface RateService {
 
-    BigDecimal getRateForEur();
+    RateTable getRateTable();
+
+    default BigDecimal getRate(String currency) {
+        return getRateTable().getRate(currency)
+                .orElseThrow(() -> new HnbRateServiceException("No exchange rate for currency " + currency))
+                .getBuyingRatePerUnit();
+    }
+
+    default BigDecimal getRateForEur() {
+        return getRate("EUR");
+    }
 
 }
@@ -0,0 +1,51 @@
+package com.backend.webshop.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs at most one call per key at a time, callers arriving while it runs wait for it and share its result.
+ */
+class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> callsInFlight = new ConcurrentHashMap<>();
+
+    V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> ownCall = new CompletableFuture<>();
+        CompletableFuture<V> callInFlight = callsInFlight.putIfAbsent(key, ownCall);
+
+        if (callInFlight != null) {
+            return await(callInFlight);
+        }
+
+        try {
+            V result = call.get();
+            ownCall.complete(result);
+
+            return result;
+        } catch (RuntimeException | Error e) {
+            // Callers waiting on the call must be released whatever it throws
+            ownCall.completeExceptionally(e);
+            throw e;
+        } finally {
+            callsInFlight.remove(key, ownCall);
+        }
+    }
+
+    private V await(CompletableFuture<V> callInFlight) {
+        try {
+            return callInFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -3,4 +3,6 @@ package com.backend.webshop.service.exception;
 public class HnbRateServiceException extends RuntimeException {
 
     public HnbRateServiceException(String message) { super(message); }
+
+    public HnbRateServiceException(String message, Throwable cause) { super(message, cause); }
 }
@@ -0,0 +1,57 @@
+-- Schema as previously generated by Hibernate (ddl-auto: update)
+
+create table customer (
+    id uuid not null,
+    first_name varchar(255),
+    last_name varchar(255),
+    email varchar(255),
+    constraint pk_customer primary key (id)
+);
+
+create table product (
+    id uuid not null,
+    product_code varchar(10),
+    name varchar(255),
+    price_hrk numeric(19, 2),
+    description varchar(255),
+    is_available boolean,
+    constraint pk_product primary key (id),
+    constraint uk_product_code unique (product_code)
+);
+
+create table exchange_rate (
+    id uuid not null,
+    application_date date not null,
+    currency varchar(3) not null,
+    currency_code varchar(3),
+    unit integer,
+    buying_rate numeric(19, 6),
+    middle_rate numeric(19, 6),
+    selling_rate numeric(19, 6),
+    constraint pk_exchange_rate primary key (id),
+    constraint uk_exchange_rate_application_date_currency unique (application_date, currency)
+);
+
+create table webshop_order (
+    id uuid not null,
+    customer_id uuid,
+    status integer,
+    created_at timestamp,
+    total_price_hrk numeric(19, 2),
+    total_price_eur numeric(19, 2),
+    exchange_rate_id uuid,
+    exchange_rate_eur numeric(19, 6),
+    constraint pk_webshop_order primary key (id),
+    constraint fk_webshop_order_customer foreign key (customer_id) references customer (id),
+    constraint fk_webshop_order_exchange_rate foreign key (exchange_rate_id) references exchange_rate (id)
+);
+
+create table order_item (
+    id uuid not null,
+    order_id uuid not null,
+    product_id uuid not null,
+    quantity bigint,
+    constraint pk_order_item primary key (id),
+    constraint fk_order_item_order foreign key (order_id) references webshop_order (id),
+    constraint fk_order_item_product foreign key (product_id) references product (id)
+);
@@ -0,0 +1,10 @@
+-- Serves findOrderItemsByOrder_Id, the bulk item delete and, as a covering index, the order total aggregate
+-- without visiting the order_item heap
+create index ix_order_item_order_id_product_id_quantity on order_item (order_id, product_id, quantity);
+
+create index ix_order_item_product_id on order_item (product_id);
+
+create index ix_webshop_order_customer_id on webshop_order (customer_id);
+
+-- Draft order cleanup
+create index ix_webshop_order_status_created_at on webshop_order (status, created_at);
@@ -0,0 +1 @@
+alter table webshop_order add column version bigint default 0 not null;
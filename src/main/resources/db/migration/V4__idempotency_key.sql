@@ -0,0 +1,9 @@
+create table idempotency_key (
+    idempotency_key varchar(255) not null,
+    request_fingerprint integer not null,
+    response varchar not null,
+    expires_at timestamp not null,
+    constraint pk_idempotency_key primary key (idempotency_key)
+);
+
+create index ix_idempotency_key_expires_at on idempotency_key (expires_at);
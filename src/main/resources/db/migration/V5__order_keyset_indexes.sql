@@ -0,0 +1,10 @@
+-- Orders created before created_at existed are listed as created when this migration ran
+update webshop_order set created_at = current_timestamp where created_at is null;
+alter table webshop_order alter column created_at set not null;
+
+-- Keyset pagination seeks on (created_at, id) after the equality filters, the status index still serves the
+-- draft order cleanup
+create index ix_webshop_order_customer_id_created_at_id on webshop_order (customer_id, created_at, id);
+create index ix_webshop_order_status_created_at_id on webshop_order (status, created_at, id);
+create index ix_webshop_order_created_at_id on webshop_order (created_at, id);
+drop index ix_webshop_order_status_created_at;
@@ -0,0 +1,7 @@
+-- Fingerprints change from the request hashCode to a SHA-256 hex digest, responses stored under the old ones are
+-- dropped rather than rejected as different requests
+delete from idempotency_key;
+alter table idempotency_key alter column request_fingerprint set data type varchar(64);
+
+-- A key is inserted before its order is created, the response is stored once the order exists
+alter table idempotency_key alter column response drop not null;
@@ -3,6 +3,7 @@ package com.backend.webshop.controller;
 import com.backend.webshop.model.Customer;
 import com.backend.webshop.controller.response.CustomerResponse;
 import com.backend.webshop.service.CustomerService;
+import com.backend.webshop.service.OrderResponseService;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
@@ -30,6 +31,9 @@ public class CustomerControllerMvcTest {
     @MockBean
     private CustomerService customerService;
 
+    @MockBean
+    private OrderResponseService orderResponseService;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -0,0 +1,147 @@
+package com.backend.webshop.controller;
+
+import com.backend.webshop.controller.request.OrderItemRequest;
+import com.backend.webshop.controller.request.OrderRequest;
+import com.backend.webshop.model.Customer;
+import com.backend.webshop.model.Product;
+import com.backend.webshop.repository.CustomerRepository;
+import com.backend.webshop.repository.OrderItemRepository;
+import com.backend.webshop.repository.OrderRepository;
+import com.backend.webshop.repository.ProductRepository;
+import com.backend.webshop.service.ProductCache;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class OrderControllerConcurrentCreateTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @SpyBean
+    private ProductCache productCache;
+
+    private static String customerId;
+    private static String productId;
+
+    @BeforeAll
+    static void beforeAll(@Autowired CustomerRepository customerRepository,
+                          @Autowired ProductRepository productRepository,
+                          @Autowired OrderRepository orderRepository,
+                          @Autowired OrderItemRepository orderItemRepository) {
+        orderItemRepository.deleteAll();
+        orderRepository.deleteAll();
+        customerRepository.deleteAll();
+        productRepository.deleteAll();
+
+        Customer newCustomer = new Customer();
+        newCustomer.setFirstName("Ema");
+        newCustomer.setLastName("Emić");
+        newCustomer.setEmail("eemic@gmai.com");
+        customerId = customerRepository.save(newCustomer).getId().toString();
+
+        Product newProduct = new Product();
+        newProduct.setCode("8000000002");
+        newProduct.setName("Concurrent create product");
+        newProduct.setPriceHrk(BigDecimal.valueOf(15.00));
+        newProduct.setDescription("Ordered from two threads at once");
+        newProduct.setIsAvailable(true);
+        productId = productRepository.save(newProduct).getId().toString();
+    }
+
+    @Test
+    void postOrder_ConcurrentDifferentRequestsWithSameIdempotencyKey_OneCreatedOtherRejected() throws Exception {
+        // arrange
+        doAnswer(invocation -> {
+            // Keeps the first create busy long enough for the other to arrive while it is in flight
+            Thread.sleep(300);
+            return invocation.callRealMethod();
+        }).when(productCache).getAll(any());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(OrderController.IDEMPOTENCY_KEY_HEADER, UUID.randomUUID().toString());
+        List<HttpEntity<OrderRequest>> requests = List.of(new HttpEntity<>(createOrderRequest(2L), headers),
+                new HttpEntity<>(createOrderRequest(3L), headers));
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(requests.size());
+        List<Future<ResponseEntity<String>>> creates = new ArrayList<>();
+
+        // act
+        for (HttpEntity<OrderRequest> request : requests) {
+            creates.add(executor.submit(() -> {
+                start.await();
+                return testRestTemplate.exchange("http://localhost:" + port + "/api/v1/create-order",
+                        HttpMethod.POST, request, String.class);
+            }));
+        }
+        start.countDown();
+
+        List<HttpStatus> statuses = new ArrayList<>();
+        for (Future<ResponseEntity<String>> create : creates) {
+            statuses.add(create.get(30, TimeUnit.SECONDS).getStatusCode());
+        }
+        executor.shutdown();
+
+        // assert
+        assertThat(statuses).containsExactlyInAnyOrder(HttpStatus.OK, HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(orderRepository.count()).isEqualTo(1L);
+    }
+
+    private OrderRequest createOrderRequest(Long quantity) {
+        OrderItemRequest orderItemRequest = new OrderItemRequest();
+        orderItemRequest.setProductId(productId);
+        orderItemRequest.setQuantity(quantity);
+
+        ArrayList<OrderItemRequest> orderItemRequestList = new ArrayList<>();
+        orderItemRequestList.add(orderItemRequest);
+
+        OrderRequest orderRequest = new OrderRequest();
+        orderRequest.setCustomerId(customerId);
+        orderRequest.setOrderItemList(orderItemRequestList);
+
+        return orderRequest;
+    }
+
+    @AfterAll
+    public static void afterAll(@Autowired CustomerRepository customerRepository,
+                                @Autowired ProductRepository productRepository,
+                                @Autowired OrderRepository orderRepository,
+                                @Autowired OrderItemRepository orderItemRepository) {
+        orderItemRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+}
@@ -0,0 +1,166 @@
+package com.backend.webshop.controller;
+
+import com.backend.webshop.controller.request.OrderItemRequest;
+import com.backend.webshop.controller.request.OrderRequest;
+import com.backend.webshop.controller.response.OrderResponse;
+import com.backend.webshop.model.CurrencyRate;
+import com.backend.webshop.model.Customer;
+import com.backend.webshop.model.Order;
+import com.backend.webshop.model.Product;
+import com.backend.webshop.model.RateTable;
+import com.backend.webshop.repository.CustomerRepository;
+import com.backend.webshop.repository.OrderItemRepository;
+import com.backend.webshop.repository.OrderRepository;
+import com.backend.webshop.repository.ProductRepository;
+import com.backend.webshop.service.CachingRateService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class OrderControllerConcurrentSubmitTest {
+
+    private static final int CONCURRENT_SUBMITS = 8;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @MockBean
+    private CachingRateService cachingRateService;
+
+    private static String customerId;
+    private static String productId;
+
+    @BeforeAll
+    static void beforeAll(@Autowired CustomerRepository customerRepository,
+                          @Autowired ProductRepository productRepository,
+                          @Autowired OrderRepository orderRepository,
+                          @Autowired OrderItemRepository orderItemRepository) {
+        orderItemRepository.deleteAll();
+        orderRepository.deleteAll();
+        customerRepository.deleteAll();
+        productRepository.deleteAll();
+
+        Customer newCustomer = new Customer();
+        newCustomer.setFirstName("Dora");
+        newCustomer.setLastName("Dorić");
+        newCustomer.setEmail("ddoric@gmai.com");
+        customerId = customerRepository.save(newCustomer).getId().toString();
+
+        Product newProduct = new Product();
+        newProduct.setCode("8000000001");
+        newProduct.setName("Concurrent product");
+        newProduct.setPriceHrk(BigDecimal.valueOf(15.00));
+        newProduct.setDescription("Submitted from many threads at once");
+        newProduct.setIsAvailable(true);
+        productId = productRepository.save(newProduct).getId().toString();
+    }
+
+    @Test
+    void submitOrder_ConcurrentSubmits_PricedOnceAndSameResponse() throws Exception {
+        // arrange
+        AtomicInteger pricings = new AtomicInteger();
+        RateTable rateTable = RateTable.builder(LocalDate.of(2022, 1, 27))
+                .add(new CurrencyRate("EUR", "978", 1, new BigDecimal("7.500000"),
+                        new BigDecimal("7.526928"), new BigDecimal("7.549509")))
+                .build();
+        when(cachingRateService.getRateTable()).thenAnswer(invocation -> {
+            pricings.incrementAndGet();
+            // Keeps the first submit busy long enough for the others to arrive while it is in flight
+            Thread.sleep(300);
+            return rateTable;
+        });
+
+        String orderId = postOrder().getOrderId();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_SUBMITS);
+        List<Future<ResponseEntity<OrderResponse>>> submits = new ArrayList<>();
+
+        // act
+        for (int i = 0; i < CONCURRENT_SUBMITS; i++) {
+            submits.add(executor.submit(() -> {
+                start.await();
+                return testRestTemplate.postForEntity(
+                        "http://localhost:" + port + "/api/v1/submit-order/" + orderId, null, OrderResponse.class);
+            }));
+        }
+        start.countDown();
+
+        List<ResponseEntity<OrderResponse>> responses = new ArrayList<>();
+        for (Future<ResponseEntity<OrderResponse>> submit : submits) {
+            responses.add(submit.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        // assert
+        assertThat(pricings.get()).isEqualTo(1);
+        assertThat(responses).allSatisfy(response -> {
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody().getTotalPriceHrk()).isEqualByComparingTo("30.00");
+            assertThat(response.getBody().getTotalPriceEur()).isEqualByComparingTo("4.00");
+        });
+
+        Order order = orderRepository.findById(UUID.fromString(orderId)).orElseThrow();
+        assertThat(order.getStatus()).isEqualTo(Order.Status.SUBMITTED);
+        assertThat(order.getVersion()).isEqualTo(1L);
+    }
+
+    private OrderResponse postOrder() {
+        OrderItemRequest orderItemRequest = new OrderItemRequest();
+        orderItemRequest.setProductId(productId);
+        orderItemRequest.setQuantity(2L);
+
+        ArrayList<OrderItemRequest> orderItemRequestList = new ArrayList<>();
+        orderItemRequestList.add(orderItemRequest);
+
+        OrderRequest orderRequest = new OrderRequest();
+        orderRequest.setCustomerId(customerId);
+        orderRequest.setOrderItemList(orderItemRequestList);
+
+        ResponseEntity<OrderResponse> orderResponse = testRestTemplate.postForEntity(
+                "http://localhost:" + port + "/api/v1/create-order", orderRequest, OrderResponse.class);
+
+        assertThat(orderResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        return orderResponse.getBody();
+    }
+
+    @AfterAll
+    public static void afterAll(@Autowired CustomerRepository customerRepository,
+                                @Autowired ProductRepository productRepository,
+                                @Autowired OrderRepository orderRepository,
+                                @Autowired OrderItemRepository orderItemRepository) {
+        orderItemRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+}
@@ -1,8 +1,11 @@
 package com.backend.webshop.controller;
 
+import com.backend.webshop.configuration.SqlStatementFilter;
 import com.backend.webshop.controller.response.OrderResponse;
 import com.backend.webshop.model.Customer;
 import com.backend.webshop.model.Order;
+import com.backend.webshop.service.BulkOrderService;
+import com.backend.webshop.service.OrderExportService;
 import com.backend.webshop.service.OrderResponseService;
 import com.backend.webshop.controller.response.OrderItemResponse;
 import org.junit.Test;
@@ -26,6 +29,7 @@ import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
@@ -35,6 +39,12 @@ public class OrderControllerMvcTest {
     @MockBean
     private OrderResponseService orderResponseService;;
 
+    @MockBean
+    private BulkOrderService bulkOrderService;
+
+    @MockBean
+    private OrderExportService orderExportService;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -63,7 +73,8 @@ public class OrderControllerMvcTest {
                         .get("/api/v1/read-order/" + invalidOrderId, 1)
                         .accept(MediaType.APPLICATION_JSON_VALUE))
                 .andDo(print())
-                .andExpect(status().isNotFound());
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(SqlStatementFilter.STATEMENTS_HEADER, "0"));
     }
 
     @Test
@@ -76,7 +87,10 @@ public class OrderControllerMvcTest {
                         .accept(MediaType.APPLICATION_JSON_VALUE))
                 .andDo(print())
                 .andExpect(status().isOk())
-                .andExpect(MockMvcResultMatchers.jsonPath("$.orderId").exists());
+                .andExpect(MockMvcResultMatchers.jsonPath("$.orderId").exists())
+                .andExpect(header().string(SqlStatementFilter.STATEMENTS_HEADER, "0"))
+                .andExpect(header().string(SqlStatementFilter.ROWS_HEADER, "0"))
+                .andExpect(header().exists(SqlStatementFilter.TIME_HEADER));
     }
 
     @Test
@@ -122,7 +136,7 @@ public class OrderControllerMvcTest {
     @Test
     public void postOrder_InvalidOrderRequest_BadRequest() throws Exception {
         OrderResponse invalidOrderResponse = createInvalidOrderResponse();
-        Mockito.when(orderResponseService.postOrder(any())).thenReturn(invalidOrderResponse);
+        Mockito.when(orderResponseService.postOrder(any(), any())).thenReturn(invalidOrderResponse);
 
         mockMvc.perform(MockMvcRequestBuilders
                         .post("/api/v1/create-order", 1)
@@ -133,10 +147,32 @@ public class OrderControllerMvcTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    public void postOrder_ItemWithProductIdAndCode_BadRequest() throws Exception {
+        String ambiguousItemOrderRequest =
+                "{" +
+                        "\"customerId\": \"31269d6a-be2e-4400-9c3f-05f1bca9f39a\", " +
+                        "\"orderItemList\": [" +
+                        "{\"productId\": \"1b1cf2a9-3618-4827-aa86-8206dbfee702\", " +
+                        "\"productCode\": \"1111111111\", " +
+                        "\"quantity\": 2}" +
+                        "]}";
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .post("/api/v1/create-order", 1)
+                        .content(ambiguousItemOrderRequest)
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .accept(MediaType.APPLICATION_JSON_VALUE))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+
+        Mockito.verify(orderResponseService, Mockito.never()).postOrder(any(), any());
+    }
+
     @Test
     public void postOrder_ValidOrderRequest_StatusOk() throws Exception {
         OrderResponse validOrderResponse = createValidOrderResponse(Order.Status.DRAFT);
-        Mockito.when(orderResponseService.postOrder(any())).thenReturn(validOrderResponse);
+        Mockito.when(orderResponseService.postOrder(any(), any())).thenReturn(validOrderResponse);
 
         mockMvc.perform(MockMvcRequestBuilders
                         .post("/api/v1/create-order", 1)
@@ -185,7 +221,8 @@ public class OrderControllerMvcTest {
         mockMvc.perform(MockMvcRequestBuilders
                         .delete("/api/v1/delete-order/" + validOrderId, 1))
                 .andDo(print())
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(header().string(SqlStatementFilter.STATEMENTS_HEADER, "0"));
     }
 
     /* *** VALID ORDER *** */
@@ -0,0 +1,278 @@
+package com.backend.webshop.controller;
+
+import com.backend.webshop.configuration.SqlStatementFilter;
+import com.backend.webshop.controller.request.OrderItemRequest;
+import com.backend.webshop.controller.request.OrderRequest;
+import com.backend.webshop.controller.response.BulkOrderResultResponse;
+import com.backend.webshop.controller.response.OrderPageResponse;
+import com.backend.webshop.controller.response.OrderResponse;
+import com.backend.webshop.model.CurrencyRate;
+import com.backend.webshop.model.Customer;
+import com.backend.webshop.model.Product;
+import com.backend.webshop.model.RateTable;
+import com.backend.webshop.repository.CustomerRepository;
+import com.backend.webshop.repository.OrderItemRepository;
+import com.backend.webshop.repository.OrderRepository;
+import com.backend.webshop.repository.ProductRepository;
+import com.backend.webshop.service.CachingRateService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.sql-metrics.count-rows-read=true")
+class OrderControllerStatementBudgetTest {
+
+    // Independent of the number of order lines, an N+1 regression blows through it
+    private static final long STATEMENT_BUDGET = 6;
+    private static final int ORDER_LINES = 25;
+    private static final int BULK_ORDERS = 40;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate testRestTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private CachingRateService cachingRateService;
+
+    private static String customerId;
+    private static final List<Product> products = new ArrayList<>();
+
+    private Statistics statistics;
+
+    @BeforeAll
+    static void beforeAll(@Autowired CustomerRepository customerRepository,
+                          @Autowired ProductRepository productRepository,
+                          @Autowired OrderRepository orderRepository,
+                          @Autowired OrderItemRepository orderItemRepository) {
+        orderItemRepository.deleteAll();
+        orderRepository.deleteAll();
+        customerRepository.deleteAll();
+        productRepository.deleteAll();
+
+        Customer newCustomer = new Customer();
+        newCustomer.setFirstName("Carl");
+        newCustomer.setLastName("Carlin");
+        newCustomer.setEmail("ccarlin@gmai.com");
+
+        customerId = customerRepository.save(newCustomer).getId().toString();
+
+        for (int i = 0; i < ORDER_LINES; i++) {
+            Product product = new Product();
+            product.setCode(String.format("7%09d", i));
+            product.setName("Product " + i);
+            product.setPriceHrk(BigDecimal.valueOf(9.99));
+            product.setDescription("Statement budget product");
+            product.setIsAvailable(true);
+            products.add(product);
+        }
+        productRepository.saveAll(products);
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        RateTable rateTable = RateTable.builder(LocalDate.of(2022, 1, 27))
+                .add(new CurrencyRate("EUR", "978", 1, new BigDecimal("7.500000"),
+                        new BigDecimal("7.526928"), new BigDecimal("7.549509")))
+                .build();
+        when(cachingRateService.getRateTable()).thenReturn(rateTable);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void postOrder_ManyOrderLines_WithinStatementBudget() {
+        // act
+        long statements = countStatements(() -> testRestTemplate.exchange(
+                "http://localhost:" + port + "/api/v1/create-order", HttpMethod.POST,
+                new HttpEntity<>(createOrderRequest()), OrderResponse.class));
+
+        // assert
+        assertThat(statements).isLessThanOrEqualTo(STATEMENT_BUDGET);
+    }
+
+    @Test
+    void postOrders_ManyOrders_StatementsGrowWithBatchesOnly() {
+        // arrange
+        List<OrderRequest> orderRequests = new ArrayList<>();
+        for (int i = 0; i < BULK_ORDERS; i++) {
+            orderRequests.add(createOrderRequest());
+        }
+
+        // act
+        long statements = countStatements(() -> testRestTemplate.postForEntity(
+                "http://localhost:" + port + "/api/v1/create-orders", orderRequests,
+                BulkOrderResultResponse[].class));
+
+        // assert
+        // One customer and one product lookup, then order and item inserts in JDBC batches of 50
+        long batches = (BULK_ORDERS + 49) / 50 + (BULK_ORDERS * ORDER_LINES + 49) / 50;
+        assertThat(statements).isLessThanOrEqualTo(2 + batches);
+    }
+
+    @Test
+    void getOrder_ManyOrderLines_WithinStatementBudget() {
+        // arrange
+        String orderId = postOrder(createOrderRequest()).getOrderId();
+
+        // act
+        statistics.clear();
+        ResponseEntity<OrderResponse> orderResponse = testRestTemplate.getForEntity(
+                "http://localhost:" + port + "/api/v1/read-order/" + orderId, OrderResponse.class);
+        long statements = statistics.getPrepareStatementCount();
+
+        // assert
+        assertThat(statements).isLessThanOrEqualTo(STATEMENT_BUDGET);
+        assertThat(orderResponse.getHeaders().getFirst(SqlStatementFilter.STATEMENTS_HEADER))
+                .isEqualTo(String.valueOf(statements));
+        assertThat(Long.parseLong(orderResponse.getHeaders().getFirst(SqlStatementFilter.ROWS_HEADER)))
+                .isEqualTo(ORDER_LINES);
+    }
+
+    @Test
+    void getOrders_DeepPage_SingleStatement() {
+        // arrange
+        for (int i = 0; i < 3; i++) {
+            postOrder(createOrderRequest());
+        }
+        OrderPageResponse firstPage = testRestTemplate.getForObject(
+                "http://localhost:" + port + "/api/v1/read-orders?size=1", OrderPageResponse.class);
+
+        // act
+        long statements = countStatements(() -> testRestTemplate.getForObject(
+                "http://localhost:" + port + "/api/v1/read-orders?size=1&after=" + firstPage.getNextCursor(),
+                OrderPageResponse.class));
+
+        // assert
+        assertThat(statements).isEqualTo(1L);
+    }
+
+    @Test
+    void putOrder_ManyOrderLines_WithinStatementBudget() {
+        // arrange
+        String orderId = postOrder(createOrderRequest()).getOrderId();
+
+        // act
+        long statements = countStatements(() -> testRestTemplate.exchange(
+                "http://localhost:" + port + "/api/v1/update-order/" + orderId, HttpMethod.PUT,
+                new HttpEntity<>(createOrderRequest()), OrderResponse.class));
+
+        // assert
+        assertThat(statements).isLessThanOrEqualTo(STATEMENT_BUDGET);
+    }
+
+    @Test
+    void submitOrder_ManyOrderLines_WithinStatementBudget() {
+        // arrange
+        String orderId = postOrder(createOrderRequest()).getOrderId();
+
+        // act
+        ResponseEntity<OrderResponse> submitResponse = testRestTemplate.postForEntity(
+                "http://localhost:" + port + "/api/v1/submit-order/" + orderId, null, OrderResponse.class);
+        long statements = statistics.getPrepareStatementCount();
+        statistics.clear();
+        long statementsForResubmit = countStatements(() -> testRestTemplate.postForEntity(
+                "http://localhost:" + port + "/api/v1/submit-order/" + orderId, null, OrderResponse.class));
+
+        // assert
+        assertThat(submitResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(statements).isLessThanOrEqualTo(STATEMENT_BUDGET);
+        assertThat(statementsForResubmit).isLessThanOrEqualTo(STATEMENT_BUDGET);
+    }
+
+    @Test
+    void deleteOrder_ManyOrderLines_WithinStatementBudget() {
+        // arrange
+        String orderId = postOrder(createOrderRequest()).getOrderId();
+
+        // act
+        long statements = countStatements(() -> {
+            testRestTemplate.delete("http://localhost:" + port + "/api/v1/delete-order/" + orderId);
+            return null;
+        });
+
+        // assert
+        assertThat(statements).isEqualTo(2L);
+    }
+
+    private long countStatements(Supplier<?> request) {
+        statistics.clear();
+        request.get();
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private OrderResponse postOrder(OrderRequest orderRequest) {
+        ResponseEntity<OrderResponse> orderResponse = testRestTemplate.exchange(
+                "http://localhost:" + port + "/api/v1/create-order", HttpMethod.POST,
+                new HttpEntity<>(orderRequest), OrderResponse.class);
+
+        assertThat(orderResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        statistics.clear();
+
+        return orderResponse.getBody();
+    }
+
+    private OrderRequest createOrderRequest() {
+        ArrayList<OrderItemRequest> orderItemRequestList = new ArrayList<>();
+
+        products.forEach(product -> {
+            OrderItemRequest orderItemRequest = new OrderItemRequest();
+            orderItemRequest.setProductId(product.getId().toString());
+            orderItemRequest.setQuantity(2L);
+            orderItemRequestList.add(orderItemRequest);
+        });
+
+        OrderRequest orderRequest = new OrderRequest();
+        orderRequest.setCustomerId(customerId);
+        orderRequest.setOrderItemList(orderItemRequestList);
+
+        return orderRequest;
+    }
+
+    @AfterAll
+    public static void afterAll(@Autowired CustomerRepository customerRepository,
+                                @Autowired ProductRepository productRepository,
+                                @Autowired OrderRepository orderRepository,
+                                @Autowired OrderItemRepository orderItemRepository) {
+        orderItemRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        customerRepository.deleteAll();
+        products.clear();
+    }
+}
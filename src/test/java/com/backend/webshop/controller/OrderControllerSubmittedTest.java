@@ -3,9 +3,11 @@ package com.backend.webshop.controller;
 import com.backend.webshop.controller.request.OrderRequest;
 import com.backend.webshop.controller.response.OrderResponse;
 import com.backend.webshop.model.Customer;
+import com.backend.webshop.model.ExchangeRate;
 import com.backend.webshop.model.Order;
 import com.backend.webshop.model.Product;
 import com.backend.webshop.repository.CustomerRepository;
+import com.backend.webshop.repository.ExchangeRateRepository;
 import com.backend.webshop.repository.OrderItemRepository;
 import com.backend.webshop.repository.OrderRepository;
 import com.backend.webshop.repository.ProductRepository;
@@ -30,6 +32,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.ArrayList;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
@@ -55,6 +58,9 @@ class OrderControllerSubmittedTest {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private ExchangeRateRepository exchangeRateRepository;
+
     private static String customerId;
     private static final Product productOne = new Product();
     private static final Product productTwo = new Product();
@@ -109,9 +115,9 @@ class OrderControllerSubmittedTest {
                 "\"Srednji za devize\":\"7,526928\"," +
                 "\"Prodajni za devize\":\"7,549509\"}]";
 
-        stubFor(get(WireMock.urlEqualTo("/eur"))
+        stubFor(get(WireMock.urlEqualTo("/tecajn"))
                 .willReturn(ResponseDefinitionBuilder.responseDefinition()
-                        .withStatus(HttpStatus.OK.ordinal())
+                        .withStatus(HttpStatus.OK.value())
                         .withHeader("Content-Type", ContentType.APPLICATION_JSON.toString())
                         .withBody(stubBody)));
     }
@@ -167,6 +173,10 @@ class OrderControllerSubmittedTest {
         Assertions.assertThat(orderResponseBody.getStatus()).isEqualTo(Order.Status.SUBMITTED);
         assertThat(orderResponseBody.getTotalPriceHrk()).isEqualTo(testTotalPriceHrk);
         assertThat(orderResponseBody.getTotalPriceEur()).isEqualTo(testTotalPriceEur);
+        assertThat(orderResponseBody.getExchangeRateEur()).isEqualByComparingTo("7.500000");
+        assertThat(exchangeRateRepository.findByApplicationDate(LocalDate.of(2022, 1, 27)))
+                .extracting(ExchangeRate::getCurrency)
+                .containsExactly("EUR");
     }
 
     private OrderRequest createOrderRequest() {
@@ -1,15 +1,21 @@
 package com.backend.webshop.controller;
 
+import com.backend.webshop.configuration.SqlStatementFilter;
 import com.backend.webshop.controller.request.OrderRequest;
+import com.backend.webshop.controller.response.BulkOrderResultResponse;
+import com.backend.webshop.controller.response.OrderPageResponse;
 import com.backend.webshop.controller.response.OrderResponse;
 import com.backend.webshop.model.Customer;
 import com.backend.webshop.model.Order;
+import com.backend.webshop.model.OrderItem;
 import com.backend.webshop.model.Product;
 import com.backend.webshop.repository.CustomerRepository;
 import com.backend.webshop.repository.OrderItemRepository;
 import com.backend.webshop.repository.OrderRepository;
 import com.backend.webshop.repository.ProductRepository;
+import com.backend.webshop.service.OrderService;
 import com.backend.webshop.controller.request.OrderItemRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -17,17 +23,25 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 class OrderControllerTest {
@@ -44,6 +58,9 @@ class OrderControllerTest {
     @Autowired
     private OrderItemRepository orderItemRepository;
 
+    @SpyBean
+    private OrderService orderService;
+
     private static String customerId;
     private static final Product productOne = new Product();
     private static final Product productTwo = new Product();
@@ -129,6 +146,244 @@ class OrderControllerTest {
                 .getProductId()).isEqualTo(productOne.getId().toString());
     }
 
+    @Test
+    void postOrder_ItemsReferencedByCode_OrderCreated() {
+        // arrange
+        OrderItemRequest orderItemRequestOne = new OrderItemRequest();
+        orderItemRequestOne.setProductCode(productOne.getCode());
+        orderItemRequestOne.setQuantity(2L);
+
+        OrderItemRequest orderItemRequestTwo = new OrderItemRequest();
+        orderItemRequestTwo.setProductCode(productTwo.getCode());
+        orderItemRequestTwo.setQuantity(5L);
+
+        OrderRequest orderRequest = new OrderRequest();
+        orderRequest.setCustomerId(customerId);
+        orderRequest.setOrderItemList(List.of(orderItemRequestOne, orderItemRequestTwo));
+
+        // act
+        OrderResponse orderResponseBody = getOrderResponseFromPost(new HttpEntity<>(orderRequest));
+
+        // assert
+        assert orderResponseBody != null;
+        assertThat(orderResponseBody.getOrderItemList())
+                .extracting(orderItemResponse -> orderItemResponse.getProductId())
+                .containsExactlyInAnyOrder(productOne.getId().toString(), productTwo.getId().toString());
+    }
+
+    @Test
+    void postOrder_RetriedWithSameIdempotencyKey_OrderCreatedOnce() {
+        // arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(OrderController.IDEMPOTENCY_KEY_HEADER, UUID.randomUUID().toString());
+        HttpEntity<OrderRequest> request = new HttpEntity<>(createOrderRequest(), headers);
+
+        // act
+        OrderResponse firstOrderResponseBody = getOrderResponseFromPost(request);
+        OrderResponse retriedOrderResponseBody = getOrderResponseFromPost(request);
+
+        // assert
+        assertThat(retriedOrderResponseBody).isEqualTo(firstOrderResponseBody);
+        assertThat(orderRepository.count()).isEqualTo(1L);
+        assertThat(orderItemRepository.count()).isEqualTo(1L);
+    }
+
+    @Test
+    void postOrder_IdempotencyKeyReusedForDifferentRequest_UnprocessableEntity() {
+        // arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(OrderController.IDEMPOTENCY_KEY_HEADER, UUID.randomUUID().toString());
+        getOrderResponseFromPost(new HttpEntity<>(createOrderRequest(), headers));
+
+        OrderRequest differentOrderRequest = createOrderRequest();
+        differentOrderRequest.getOrderItemList().get(0).setQuantity(3L);
+
+        // act
+        String url = "http://localhost:" + port + "/api/v1/create-order";
+        ResponseEntity<String> orderResponse = testRestTemplate.exchange(url, HttpMethod.POST,
+                new HttpEntity<>(differentOrderRequest, headers), String.class);
+
+        // assert
+        assertThat(orderResponse.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(orderRepository.count()).isEqualTo(1L);
+    }
+
+    @Test
+    void postOrders_JsonArrayWithUnknownProduct_OnlyValidOrdersCreated() {
+        // arrange
+        OrderRequest unknownProductOrderRequest = createOrderRequest();
+        unknownProductOrderRequest.getOrderItemList().get(0).setProductId(UUID.randomUUID().toString());
+
+        List<OrderRequest> orderRequests = List.of(createOrderRequest(), unknownProductOrderRequest,
+                createOrderRequest());
+
+        // act
+        String url = "http://localhost:" + port + "/api/v1/create-orders";
+        ResponseEntity<BulkOrderResultResponse[]> bulkResponse =
+                testRestTemplate.postForEntity(url, orderRequests, BulkOrderResultResponse[].class);
+        BulkOrderResultResponse[] results = bulkResponse.getBody();
+
+        // assert
+        assert results != null;
+        assertThat(results).extracting(BulkOrderResultResponse::getIndex).containsExactly(0, 1, 2);
+        assertThat(results).extracting(BulkOrderResultResponse::getResult).containsExactly(
+                BulkOrderResultResponse.Result.CREATED, BulkOrderResultResponse.Result.REJECTED,
+                BulkOrderResultResponse.Result.CREATED);
+        assertThat(results[1].getOrderId()).isNull();
+        assertThat(orderRepository.findById(UUID.fromString(results[2].getOrderId()))).isPresent();
+        assertThat(orderRepository.count()).isEqualTo(2L);
+        assertThat(orderItemRepository.count()).isEqualTo(2L);
+    }
+
+    @Test
+    void postOrders_OrderWithNullItem_OnlyThatOrderRejected() {
+        // arrange
+        String orderRequestJson = "{\"customerId\":\"" + customerId + "\",\"orderItemList\":[{\"productId\":\""
+                + productTwo.getId() + "\",\"quantity\":3}]}";
+        String nullItemOrderRequestJson = "{\"customerId\":\"" + customerId + "\",\"orderItemList\":[{\"productId\":\""
+                + productTwo.getId() + "\",\"quantity\":3},null]}";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        // act
+        String url = "http://localhost:" + port + "/api/v1/create-orders";
+        ResponseEntity<BulkOrderResultResponse[]> bulkResponse = testRestTemplate.postForEntity(url,
+                new HttpEntity<>("[" + orderRequestJson + "," + nullItemOrderRequestJson + "]", headers),
+                BulkOrderResultResponse[].class);
+        BulkOrderResultResponse[] results = bulkResponse.getBody();
+
+        // assert
+        assertThat(bulkResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assert results != null;
+        assertThat(results).extracting(BulkOrderResultResponse::getResult).containsExactly(
+                BulkOrderResultResponse.Result.CREATED, BulkOrderResultResponse.Result.REJECTED);
+        assertThat(results[1].getReason()).isEqualTo("orderItemList[1] must not be null");
+        assertThat(orderRepository.count()).isEqualTo(1L);
+    }
+
+    @Test
+    void postOrders_ChunkSaveFails_OrdersReportedFailed() {
+        // arrange
+        doThrow(new DataIntegrityViolationException("Duplicate key")).when(orderService).saveOrders(any());
+
+        // act
+        String url = "http://localhost:" + port + "/api/v1/create-orders";
+        ResponseEntity<BulkOrderResultResponse[]> bulkResponse = testRestTemplate.postForEntity(url,
+                List.of(createOrderRequest(), createOrderRequest()), BulkOrderResultResponse[].class);
+        BulkOrderResultResponse[] results = bulkResponse.getBody();
+
+        // assert
+        assertThat(bulkResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assert results != null;
+        assertThat(results).extracting(BulkOrderResultResponse::getResult).containsExactly(
+                BulkOrderResultResponse.Result.FAILED, BulkOrderResultResponse.Result.FAILED);
+        assertThat(results).extracting(BulkOrderResultResponse::getOrderId).containsOnlyNulls();
+        assertThat(orderRepository.count()).isZero();
+    }
+
+    @Test
+    void postOrders_NdjsonWithMalformedLine_OrdersBeforeItCreated() {
+        // arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        String orderRequestLine = "{\"customerId\":\"" + customerId + "\",\"orderItemList\":[{\"productId\":\""
+                + productTwo.getId() + "\",\"quantity\":3}]}\n";
+        String ndjson = orderRequestLine + orderRequestLine + "{\"customerId\":\n";
+
+        // act
+        String url = "http://localhost:" + port + "/api/v1/create-orders";
+        ResponseEntity<BulkOrderResultResponse[]> bulkResponse = testRestTemplate.postForEntity(url,
+                new HttpEntity<>(ndjson, headers), BulkOrderResultResponse[].class);
+        BulkOrderResultResponse[] results = bulkResponse.getBody();
+
+        // assert
+        assert results != null;
+        assertThat(results).extracting(BulkOrderResultResponse::getResult).containsExactly(
+                BulkOrderResultResponse.Result.CREATED, BulkOrderResultResponse.Result.CREATED,
+                BulkOrderResultResponse.Result.REJECTED);
+        assertThat(orderRepository.count()).isEqualTo(2L);
+        assertThat(orderItemRepository.findOrderItemsByOrder_Id(UUID.fromString(results[0].getOrderId())))
+                .extracting(OrderItem::getQuantity).containsExactly(3L);
+    }
+
+    @Test
+    void getOrders_PagedWithCursor_EveryOrderOnceNewestFirst() {
+        // arrange
+        List<String> orderIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            orderIds.add(0, getOrderResponseFromPost(new HttpEntity<>(createOrderRequest())).getOrderId());
+        }
+
+        // act
+        List<String> listedOrderIds = new ArrayList<>();
+        String after = null;
+        int pages = 0;
+        do {
+            String url = "http://localhost:" + port + "/api/v1/read-orders?size=2&status=DRAFT"
+                    + (after == null ? "" : "&after=" + after);
+            OrderPageResponse orderPage = testRestTemplate.getForObject(url, OrderPageResponse.class);
+
+            orderPage.getOrderList().forEach(order -> listedOrderIds.add(order.getOrderId()));
+            after = orderPage.getNextCursor();
+            pages++;
+        } while (after != null);
+
+        // assert
+        assertThat(pages).isEqualTo(3);
+        assertThat(listedOrderIds).containsExactlyElementsOf(orderIds);
+    }
+
+    @Test
+    void getCustomerOrders_ValidCustomerId_OrderSummariesReturned() {
+        // arrange
+        OrderResponse postOrderResponseBody = getOrderResponseFromPost(new HttpEntity<>(createOrderRequest()));
+
+        // act
+        String url = "http://localhost:" + port + "/api/v1/customer/" + customerId + "/orders";
+        OrderPageResponse orderPage = testRestTemplate.getForObject(url, OrderPageResponse.class);
+        ResponseEntity<String> unknownCustomerResponse = testRestTemplate.getForEntity(
+                "http://localhost:" + port + "/api/v1/customer/" + UUID.randomUUID() + "/orders", String.class);
+
+        // assert
+        assertThat(orderPage.getOrderList()).hasSize(1);
+        assertThat(orderPage.getOrderList().get(0).getOrderId()).isEqualTo(postOrderResponseBody.getOrderId());
+        assertThat(orderPage.getOrderList().get(0).getCustomerId()).isEqualTo(customerId);
+        assertThat(orderPage.getOrderList().get(0).getCreatedAt()).isNotNull();
+        assertThat(orderPage.getNextCursor()).isNull();
+        assertThat(unknownCustomerResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void exportOrders_DraftOrders_OneLinePerOrderWithItems() throws Exception {
+        // arrange
+        OrderResponse firstOrderResponseBody = getOrderResponseFromPost(new HttpEntity<>(createOrderRequest()));
+
+        OrderRequest twoItemOrderRequest = createOrderRequest();
+        OrderItemRequest orderItemRequestTwo = new OrderItemRequest();
+        orderItemRequestTwo.setProductId(productTwo.getId().toString());
+        orderItemRequestTwo.setQuantity(5L);
+        twoItemOrderRequest.getOrderItemList().add(orderItemRequestTwo);
+        OrderResponse secondOrderResponseBody = getOrderResponseFromPost(new HttpEntity<>(twoItemOrderRequest));
+
+        // act
+        String url = "http://localhost:" + port + "/api/v1/export-orders?status=DRAFT";
+        ResponseEntity<String> exportResponse = testRestTemplate.getForEntity(url, String.class);
+
+        // assert
+        assertThat(exportResponse.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        assertThat(exportResponse.getHeaders()).doesNotContainKeys(SqlStatementFilter.STATEMENTS_HEADER,
+                SqlStatementFilter.ROWS_HEADER, SqlStatementFilter.TIME_HEADER);
+        String[] lines = exportResponse.getBody().split("\n");
+        assertThat(lines).hasSize(2);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        OrderResponse firstExportedOrder = objectMapper.readValue(lines[0], OrderResponse.class);
+        OrderResponse secondExportedOrder = objectMapper.readValue(lines[1], OrderResponse.class);
+        assertThat(firstExportedOrder).isEqualTo(firstOrderResponseBody);
+        assertThat(secondExportedOrder.getOrderId()).isEqualTo(secondOrderResponseBody.getOrderId());
+        assertThat(secondExportedOrder.getOrderItemList()).hasSize(2);
+    }
+
     @Test
     void putOrder_ValidOrderRequestAndOrderId_OrderUpdated() {
         // arrange
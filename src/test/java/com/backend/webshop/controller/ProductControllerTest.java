@@ -5,6 +5,7 @@ import com.backend.webshop.repository.OrderItemRepository;
 import com.backend.webshop.repository.ProductRepository;
 import com.backend.webshop.controller.request.ProductRequest;
 import com.backend.webshop.controller.response.ProductResponse;
+import com.backend.webshop.controller.response.ProductSearchResponse;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +15,7 @@ import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.web.server.LocalServerPort;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.math.BigDecimal;
@@ -91,6 +93,99 @@ class ProductControllerTest {
         assertEquals(newProduct.getIsAvailable(), productResponseBody.getIsAvailable());
     }
 
+    @Test
+    void getProduct_AfterPutProduct_UpdatedProductReturned() {
+        // arrange
+        Product productSavedToDb = productRepository.save(newProduct);
+        String url = "http://localhost:" + port + "/api/v1/product/" + productSavedToDb.getId();
+        testRestTemplate.getForEntity(url, ProductResponse.class);
+
+        ProductRequest changedProduct = new ProductRequest();
+        changedProduct.setCode(productSavedToDb.getCode());
+        changedProduct.setName("Renamed");
+        changedProduct.setPriceHrk(productSavedToDb.getPriceHrk());
+        changedProduct.setDescription(productSavedToDb.getDescription());
+        changedProduct.setIsAvailable(false);
+        testRestTemplate.exchange(url, HttpMethod.PUT, new HttpEntity<>(changedProduct), ProductResponse.class);
+
+        // act
+        ResponseEntity<ProductResponse> productResponse = testRestTemplate.getForEntity(url, ProductResponse.class);
+        ProductResponse productResponseBody = productResponse.getBody();
+
+        // assert
+        assert productResponseBody != null;
+        assertEquals("Renamed", productResponseBody.getName());
+        assertEquals(false, productResponseBody.getIsAvailable());
+    }
+
+    @Test
+    void searchProducts_AfterPostAndDeleteProduct_OnlyRemainingProductFound() {
+        // arrange
+        String url = "http://localhost:" + port + "/api/v1/product/";
+        newProduct.setCode("7777777777");
+        newProduct.setName("Torque wrench");
+        ProductResponse keptProduct = testRestTemplate.postForObject(url, newProduct, ProductResponse.class);
+        newProduct.setCode("8888888888");
+        newProduct.setName("Pipe wrench");
+        ProductResponse deletedProduct = testRestTemplate.postForObject(url, newProduct, ProductResponse.class);
+        testRestTemplate.delete(url + deletedProduct.getId());
+
+        // act
+        ResponseEntity<ProductSearchResponse> searchResponse =
+                testRestTemplate.getForEntity(url + "search?query=wren", ProductSearchResponse.class);
+        ProductSearchResponse searchResponseBody = searchResponse.getBody();
+
+        // assert
+        assert searchResponseBody != null;
+        assertEquals(1, searchResponseBody.getTotalMatches());
+        assertEquals(keptProduct.getId(), searchResponseBody.getProductList().get(0).getId());
+    }
+
+    @Test
+    void getProductByCode_ValidCode_ProductReturned() {
+        // arrange
+        newProduct.setCode("4444444444");
+        Product productSavedToDb = productRepository.save(newProduct);
+
+        // act
+        String url = "http://localhost:" + port + "/api/v1/product/by-code/" + newProduct.getCode();
+        ResponseEntity<ProductResponse> productResponse = testRestTemplate.getForEntity(url, ProductResponse.class);
+        ProductResponse productResponseBody = productResponse.getBody();
+
+        // assert
+        assert productResponseBody != null;
+        assertEquals(productSavedToDb.getId().toString(), productResponseBody.getId());
+        assertEquals(newProduct.getCode(), productResponseBody.getCode());
+    }
+
+    @Test
+    void getProductByCode_AfterPutProductChangesCode_OldCodeNotFound() {
+        // arrange
+        newProduct.setCode("5555555555");
+        Product productSavedToDb = productRepository.save(newProduct);
+        String byCodeUrl = "http://localhost:" + port + "/api/v1/product/by-code/";
+        testRestTemplate.getForEntity(byCodeUrl + "5555555555", ProductResponse.class);
+
+        ProductRequest changedProduct = new ProductRequest();
+        changedProduct.setCode("6666666666");
+        changedProduct.setName(productSavedToDb.getName());
+        changedProduct.setPriceHrk(productSavedToDb.getPriceHrk());
+        changedProduct.setDescription(productSavedToDb.getDescription());
+        changedProduct.setIsAvailable(productSavedToDb.getIsAvailable());
+        testRestTemplate.exchange("http://localhost:" + port + "/api/v1/product/" + productSavedToDb.getId(),
+                HttpMethod.PUT, new HttpEntity<>(changedProduct), ProductResponse.class);
+
+        // act
+        ResponseEntity<String> oldCodeResponse = testRestTemplate.getForEntity(byCodeUrl + "5555555555", String.class);
+        ResponseEntity<ProductResponse> newCodeResponse =
+                testRestTemplate.getForEntity(byCodeUrl + "6666666666", ProductResponse.class);
+
+        // assert
+        assertEquals(HttpStatus.NOT_FOUND, oldCodeResponse.getStatusCode());
+        assert newCodeResponse.getBody() != null;
+        assertEquals(productSavedToDb.getId().toString(), newCodeResponse.getBody().getId());
+    }
+
     @Test
     void putProduct_ValidProductRequestAndProductId_ProductUpdated() {
         // arrange
@@ -0,0 +1,70 @@
+package com.backend.webshop.model;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Run with {@code mvn test -Pbenchmark}; point the test datasource at PostgreSQL for numbers that reflect
+ * B-tree page splits.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TimeOrderedUuidBenchmarkTest {
+
+    private static final int ROWS = 200_000;
+    private static final int BATCH_SIZE = 1_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    public void afterEach() {
+        jdbcTemplate.execute("drop table if exists uuid_benchmark");
+    }
+
+    @Test
+    void insert_RandomUuids() {
+        log.info("Random UUIDv4: {} inserts/s", String.format("%.0f", insert(UUID::randomUUID)));
+    }
+
+    @Test
+    void insert_TimeOrderedUuids() {
+        TimeOrderedUuidGenerator timeOrderedUuidGenerator = new TimeOrderedUuidGenerator();
+
+        log.info("Time-ordered UUIDv7: {} inserts/s",
+                String.format("%.0f", insert(() -> timeOrderedUuidGenerator.nextUuid(System.currentTimeMillis()))));
+    }
+
+    private double insert(Supplier<UUID> idGenerator) {
+        jdbcTemplate.execute("drop table if exists uuid_benchmark");
+        jdbcTemplate.execute("create table uuid_benchmark (id uuid primary key, payload varchar(64))");
+
+        long start = System.nanoTime();
+        for (int inserted = 0; inserted < ROWS; inserted += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                batch.add(new Object[]{idGenerator.get(), "order item " + (inserted + i)});
+            }
+            jdbcTemplate.batchUpdate("insert into uuid_benchmark (id, payload) values (?, ?)", batch);
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from uuid_benchmark", Long.class))
+                .isEqualTo((long) ROWS);
+
+        return ROWS / seconds;
+    }
+}
@@ -0,0 +1,62 @@
+package com.backend.webshop.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeOrderedUuidGeneratorTest {
+
+    private final TimeOrderedUuidGenerator timeOrderedUuidGenerator = new TimeOrderedUuidGenerator();
+
+    @Test
+    void nextUuid_Generated_Version7AndIetfVariant() {
+        // arrange
+        long epochMillis = System.currentTimeMillis();
+
+        // act
+        UUID uuid = timeOrderedUuidGenerator.nextUuid(epochMillis);
+
+        // assert
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(uuid.getMostSignificantBits() >>> 16).isGreaterThanOrEqualTo(epochMillis);
+    }
+
+    @Test
+    void nextUuid_ManyIdsInSameMillisecond_StrictlyIncreasingAndUnique() {
+        // arrange
+        long epochMillis = System.currentTimeMillis();
+        List<UUID> uuids = new ArrayList<>();
+
+        // act
+        for (int i = 0; i < 10_000; i++) {
+            uuids.add(timeOrderedUuidGenerator.nextUuid(epochMillis));
+        }
+
+        // assert
+        Set<UUID> uniqueUuids = new HashSet<>(uuids);
+        assertThat(uniqueUuids).hasSize(uuids.size());
+        for (int i = 1; i < uuids.size(); i++) {
+            assertThat(uuids.get(i).toString()).isGreaterThan(uuids.get(i - 1).toString());
+        }
+    }
+
+    @Test
+    void nextUuid_ClockMovesBackwards_StillIncreasing() {
+        // arrange
+        long epochMillis = System.currentTimeMillis() + 60_000;
+        UUID first = timeOrderedUuidGenerator.nextUuid(epochMillis);
+
+        // act
+        UUID second = timeOrderedUuidGenerator.nextUuid(epochMillis - 1_000);
+
+        // assert
+        assertThat(second.toString()).isGreaterThan(first.toString());
+    }
+}
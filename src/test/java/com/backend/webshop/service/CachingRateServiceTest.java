@@ -0,0 +1,163 @@
+package com.backend.webshop.service;
+
+import com.backend.webshop.model.CurrencyRate;
+import com.backend.webshop.model.RateTable;
+import com.backend.webshop.service.exception.HnbRateServiceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingRateServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock(Instant.parse("2022-01-27T10:00:00Z"));
+    private final AtomicInteger delegateCalls = new AtomicInteger();
+
+    private CachingRateService cachingRateService;
+
+    @BeforeEach
+    public void beforeEach() {
+        RateService delegate = () -> {
+            delegateCalls.incrementAndGet();
+            return createRateTable("7.500000", LocalDate.of(2022, 1, 27));
+        };
+
+        cachingRateService =
+                new CachingRateService(delegate, Duration.ofMinutes(10), meterRegistry, Runnable::run, clock);
+    }
+
+    @Test
+    void getRateForEur_WithinTtl_DelegateCalledOnce() {
+        // act
+        BigDecimal first = cachingRateService.getRateForEur();
+        BigDecimal second = cachingRateService.getRateForEur();
+
+        // assert
+        assertThat(first).isEqualByComparingTo(second);
+        assertThat(delegateCalls.get()).isEqualTo(1);
+        assertThat(meterRegistry.counter("webshop.rate.cache", "result", "hit").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("webshop.rate.cache", "result", "miss").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.timer("webshop.rate.cache.refresh").count()).isEqualTo(1L);
+    }
+
+    @Test
+    void getRateForEur_TtlExpired_StaleRateServedAndRefreshed() {
+        // arrange
+        List<Runnable> pendingRefreshes = new ArrayList<>();
+        CachingRateService service = new CachingRateService(() -> {
+            delegateCalls.incrementAndGet();
+            return createRateTable("7." + delegateCalls.get(), LocalDate.of(2022, 1, 27));
+        }, Duration.ofMinutes(10), meterRegistry, pendingRefreshes::add, clock);
+        service.getRateForEur();
+        clock.advance(Duration.ofMinutes(11));
+
+        // act
+        BigDecimal staleRate = service.getRateForEur();
+        pendingRefreshes.forEach(Runnable::run);
+        BigDecimal refreshedRate = service.getRateForEur();
+
+        // assert
+        assertThat(staleRate).isEqualByComparingTo("7.1");
+        assertThat(refreshedRate).isEqualByComparingTo("7.2");
+        assertThat(pendingRefreshes).hasSize(1);
+        assertThat(delegateCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void getRateForEur_NextRateListApplicable_NextRateServedWithoutFetch() {
+        // arrange
+        cachingRateService.getRateForEur();
+        cachingRateService.putNextRateTable(createRateTable("7.420000", LocalDate.of(2022, 1, 28)));
+
+        // act
+        BigDecimal rateBeforeApplicationDate = cachingRateService.getRateForEur();
+        clock.advance(Duration.ofDays(1));
+        BigDecimal rateOnApplicationDate = cachingRateService.getRateForEur();
+
+        // assert
+        assertThat(rateBeforeApplicationDate).isEqualByComparingTo("7.500000");
+        assertThat(rateOnApplicationDate).isEqualByComparingTo("7.420000");
+        assertThat(delegateCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void getRateForEur_RefreshFails_PreviousRateReturned() {
+        // arrange
+        AtomicInteger calls = new AtomicInteger();
+        RateService failingAfterFirstCall = () -> {
+            if (calls.incrementAndGet() > 1) {
+                throw new HnbRateServiceException("Rate service unavailable");
+            }
+            return createRateTable("7.500000", LocalDate.of(2022, 1, 27));
+        };
+        CachingRateService service = new CachingRateService(failingAfterFirstCall, Duration.ofMinutes(10),
+                meterRegistry, Runnable::run, clock);
+        service.getRateForEur();
+        clock.advance(Duration.ofMinutes(11));
+
+        // act
+        BigDecimal rate = service.getRateForEur();
+
+        // assert
+        assertThat(rate).isEqualByComparingTo("7.500000");
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void getRateForEur_ConcurrentColdStart_SingleDelegateCall() throws Exception {
+        // arrange
+        CountDownLatch delegateEntered = new CountDownLatch(1);
+        CountDownLatch releaseDelegate = new CountDownLatch(1);
+        RateService slowDelegate = () -> {
+            delegateCalls.incrementAndGet();
+            delegateEntered.countDown();
+            try {
+                releaseDelegate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return createRateTable("7.500000", LocalDate.of(2022, 1, 27));
+        };
+        CachingRateService service =
+                new CachingRateService(slowDelegate, Duration.ofMinutes(10), meterRegistry, Runnable::run, clock);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+
+        // act
+        List<Future<BigDecimal>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executorService.submit(service::getRateForEur));
+        }
+        delegateEntered.await(5, TimeUnit.SECONDS);
+        releaseDelegate.countDown();
+
+        // assert
+        for (Future<BigDecimal> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualByComparingTo("7.500000");
+        }
+        assertThat(delegateCalls.get()).isEqualTo(1);
+
+        executorService.shutdown();
+    }
+
+    private RateTable createRateTable(String eurBuyingRate, LocalDate applicationDate) {
+        return RateTable.builder(applicationDate)
+                .add(new CurrencyRate("EUR", "978", 1, new BigDecimal(eurBuyingRate),
+                        new BigDecimal("7.526928"), new BigDecimal("7.549509")))
+                .build();
+    }
+}
@@ -0,0 +1,41 @@
+package com.backend.webshop.service;
+
+import com.backend.webshop.service.exception.HnbRateServiceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CircuitBreakerTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2022-01-27T10:00:00Z"));
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker("hnb-rate-api", 1, Duration.ofMinutes(1),
+            new SimpleMeterRegistry(), clock);
+
+    @Test
+    void call_TrialCallThrowsError_CircuitReopenedAndLaterTrialLetThrough() {
+        // arrange
+        assertThatThrownBy(() -> circuitBreaker.call(() -> {
+            throw new HnbRateServiceException("HNB rate service unavailable");
+        })).isInstanceOf(HnbRateServiceException.class);
+        clock.advance(Duration.ofMinutes(1));
+
+        // act
+        assertThatThrownBy(() -> circuitBreaker.call(() -> {
+            throw new StackOverflowError();
+        })).isInstanceOf(StackOverflowError.class);
+        CircuitBreaker.State stateAfterError = circuitBreaker.getState();
+
+        clock.advance(Duration.ofMinutes(1));
+        String result = circuitBreaker.call(() -> "7.500000");
+
+        // assert
+        assertThat(stateAfterError).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(result).isEqualTo("7.500000");
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+}
@@ -0,0 +1,129 @@
+package com.backend.webshop.service;
+
+import com.backend.webshop.model.RateTable;
+import com.fasterxml.jackson.core.JsonParseException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HnbRateListParserTest {
+
+    private final HnbRateListParser hnbRateListParser = new HnbRateListParser();
+
+    @Test
+    void parse_FullRateList_OnlyNeededFieldsExtracted() throws Exception {
+        // arrange
+        String rateList = "[{\"Broj tečajnice\":\"18\"," +
+                "\"Datum primjene\":\"27.01.2022\"," +
+                "\"Država\":\"EMU\"," +
+                "\"Država_iso\":{\"alpha2\":\"EU\",\"alpha3\":[\"EMU\"]}," +
+                "\"Šifra valute\":\"978\"," +
+                "\"Valuta\":\"EUR\"," +
+                "\"Jedinica\":1," +
+                "\"Kupovni za devize\":\"7,500000\"," +
+                "\"Srednji za devize\":\"7,526928\"," +
+                "\"Prodajni za devize\":\"7,549509\"}," +
+                "{\"Datum primjene\":\"27.01.2022\"," +
+                "\"Šifra valute\":\"392\"," +
+                "\"Valuta\":\"JPY\"," +
+                "\"Jedinica\":\"100\"," +
+                "\"Kupovni za devize\":\"5,815600\"," +
+                "\"Srednji za devize\":\"5,833100\"," +
+                "\"Prodajni za devize\":\"5,850600\"}]";
+
+        // act
+        Optional<RateTable> rateTable = hnbRateListParser.parse(toInputStream(rateList));
+
+        // assert
+        assertThat(rateTable).hasValueSatisfying(table -> {
+            assertThat(table.getApplicationDate()).isEqualTo(LocalDate.of(2022, 1, 27));
+            assertThat(table.getRates()).hasSize(2);
+            assertThat(table.getRate("EUR")).hasValueSatisfying(eur -> {
+                assertThat(eur.getCurrencyCode()).isEqualTo("978");
+                assertThat(eur.getBuyingRate()).isEqualByComparingTo("7.500000");
+                assertThat(eur.getMiddleRate()).isEqualByComparingTo("7.526928");
+                assertThat(eur.getSellingRate()).isEqualByComparingTo("7.549509");
+            });
+            assertThat(table.getRate("JPY")).hasValueSatisfying(jpy -> assertThat(jpy.getUnit()).isEqualTo(100));
+        });
+    }
+
+    @Test
+    void parse_EmptyRateList_EmptyReturned() throws Exception {
+        // act
+        Optional<RateTable> rateTable = hnbRateListParser.parse(toInputStream("[]"));
+
+        // assert
+        assertThat(rateTable).isEmpty();
+    }
+
+    @Test
+    void parse_MalformedRate_JsonParseExceptionThrown() {
+        // arrange
+        String rateList = "[{\"Datum primjene\":\"27.01.2022\",\"Valuta\":\"EUR\",\"Kupovni za devize\":\"7,5x\"}]";
+
+        // act & assert
+        assertThatThrownBy(() -> hnbRateListParser.parse(toInputStream(rateList)))
+                .isInstanceOf(JsonParseException.class)
+                .hasMessageContaining("Unexpected exchange rate format");
+    }
+
+    @Test
+    void parse_RateWithZeroUnit_JsonParseExceptionThrown() {
+        // arrange
+        String rateList = "[{\"Datum primjene\":\"27.01.2022\",\"Valuta\":\"JPY\",\"Jedinica\":0," +
+                "\"Kupovni za devize\":\"5,815600\"}]";
+
+        // act & assert
+        assertThatThrownBy(() -> hnbRateListParser.parse(toInputStream(rateList)))
+                .isInstanceOf(JsonParseException.class)
+                .hasMessageContaining("Unexpected unit for JPY");
+    }
+
+    @Test
+    void parse_RateWithInvalidCurrency_JsonParseExceptionThrown() {
+        // arrange
+        String rateList = "[{\"Datum primjene\":\"27.01.2022\",\"Valuta\":\"E1\"," +
+                "\"Kupovni za devize\":\"7,500000\"}]";
+
+        // act & assert
+        assertThatThrownBy(() -> hnbRateListParser.parse(toInputStream(rateList)))
+                .isInstanceOf(JsonParseException.class)
+                .hasMessageContaining("Invalid currency: E1");
+    }
+
+    @Test
+    void parse_RateWithNullBuyingRate_JsonParseExceptionThrown() {
+        // arrange
+        String rateList = "[{\"Datum primjene\":\"27.01.2022\",\"Valuta\":\"EUR\"," +
+                "\"Kupovni za devize\":null}]";
+
+        // act & assert
+        assertThatThrownBy(() -> hnbRateListParser.parse(toInputStream(rateList)))
+                .isInstanceOf(JsonParseException.class)
+                .hasMessageContaining("Unexpected exchange rate format: null");
+    }
+
+    @Test
+    void parse_RateWithNullUnit_JsonParseExceptionThrown() {
+        // arrange
+        String rateList = "[{\"Datum primjene\":\"27.01.2022\",\"Valuta\":\"JPY\",\"Jedinica\":null," +
+                "\"Kupovni za devize\":\"5,815600\"}]";
+
+        // act & assert
+        assertThatThrownBy(() -> hnbRateListParser.parse(toInputStream(rateList)))
+                .isInstanceOf(JsonParseException.class)
+                .hasMessageContaining("Expected a number: null");
+    }
+
+    private InputStream toInputStream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,180 @@
+package com.backend.webshop.service;
+
+import com.backend.webshop.configuration.ApplicationConfiguration;
+import com.backend.webshop.model.CurrencyRate;
+import com.backend.webshop.model.RateTable;
+import com.backend.webshop.service.exception.HnbRateServiceException;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+
+@WireMockTest
+class HnbRateServiceImplTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final String stubBody = "[{\"Broj tečajnice\":\"18\"," +
+            "\"Datum primjene\":\"27.01.2022\"," +
+            "\"Država\":\"EMU\"," +
+            "\"Šifra valute\":\"978\"," +
+            "\"Valuta\":\"EUR\"," +
+            "\"Jedinica\":1," +
+            "\"Kupovni za devize\":\"7,500000\"," +
+            "\"Srednji za devize\":\"7,526928\"," +
+            "\"Prodajni za devize\":\"7,549509\"}," +
+            "{\"Broj tečajnice\":\"18\"," +
+            "\"Datum primjene\":\"27.01.2022\"," +
+            "\"Država\":\"Japan\"," +
+            "\"Šifra valute\":\"392\"," +
+            "\"Valuta\":\"JPY\"," +
+            "\"Jedinica\":100," +
+            "\"Kupovni za devize\":\"5,815600\"," +
+            "\"Srednji za devize\":\"5,833100\"," +
+            "\"Prodajni za devize\":\"5,850600\"}]";
+
+    private final Clock clock = Clock.fixed(Instant.parse("2022-01-28T10:00:00Z"), ZoneOffset.UTC);
+
+    private CloseableHttpClient rateHttpClient;
+    private CircuitBreaker circuitBreaker;
+    private ExchangeRateService exchangeRateService;
+    private HnbRateServiceImpl hnbRateService;
+
+    @BeforeEach
+    public void beforeEach(WireMockRuntimeInfo wireMockRuntimeInfo) {
+        ApplicationConfiguration applicationConfiguration = new ApplicationConfiguration();
+        applicationConfiguration.setUrl(wireMockRuntimeInfo.getHttpBaseUrl() + "/tecajn");
+        applicationConfiguration.setConnectTimeout(Duration.ofMillis(200));
+        applicationConfiguration.setReadTimeout(Duration.ofMillis(200));
+
+        circuitBreaker = new CircuitBreaker("hnb-rate-api", 2, Duration.ofMinutes(1), meterRegistry,
+                Clock.systemUTC());
+        rateHttpClient = applicationConfiguration.rateHttpClient();
+        RestTemplate restTemplate = applicationConfiguration.restTemplate(new RestTemplateBuilder(), rateHttpClient);
+        exchangeRateService = Mockito.mock(ExchangeRateService.class);
+        Mockito.when(exchangeRateService.saveRateTable(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        hnbRateService = new HnbRateServiceImpl(restTemplate, applicationConfiguration, circuitBreaker,
+                exchangeRateService, new HnbRateListParser(), clock);
+    }
+
+    @AfterEach
+    public void afterEach() throws IOException {
+        rateHttpClient.close();
+    }
+
+    @Test
+    void getRateForEur_RateServiceAvailable_BuyingRateReturned() {
+        // arrange
+        stubFor(get(WireMock.urlEqualTo("/tecajn"))
+                .willReturn(ResponseDefinitionBuilder.responseDefinition()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader("Content-Type", ContentType.APPLICATION_JSON.toString())
+                        .withBody(stubBody)));
+
+        // act
+        BigDecimal rate = hnbRateService.getRateForEur();
+
+        // assert
+        assertThat(rate).isEqualByComparingTo("7.500000");
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void getRateTable_RateServiceAvailable_AllCurrenciesIndexed() {
+        // arrange
+        stubFor(get(WireMock.urlEqualTo("/tecajn"))
+                .willReturn(ResponseDefinitionBuilder.responseDefinition()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader("Content-Type", ContentType.APPLICATION_JSON.toString())
+                        .withBody(stubBody)));
+
+        // act
+        RateTable rateTable = hnbRateService.getRateTable();
+
+        // assert
+        assertThat(rateTable.getApplicationDate()).isEqualTo(LocalDate.of(2022, 1, 27));
+        assertThat(rateTable.getRates()).hasSize(2);
+        assertThat(rateTable.getRate("JPY")).hasValueSatisfying(jpy -> {
+            assertThat(jpy.getUnit()).isEqualTo(100);
+            assertThat(jpy.getBuyingRatePerUnit()).isEqualByComparingTo("0.058156");
+        });
+        assertThat(rateTable.getRate("USD")).isEmpty();
+        assertThat(hnbRateService.getRate("eur")).isEqualByComparingTo("7.500000");
+    }
+
+    @Test
+    void getRateForEur_RateServiceSlow_TimesOutAndOpensCircuit() {
+        // arrange
+        stubFor(get(WireMock.urlEqualTo("/tecajn"))
+                .willReturn(ResponseDefinitionBuilder.responseDefinition()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader("Content-Type", ContentType.APPLICATION_JSON.toString())
+                        .withBody(stubBody)
+                        .withFixedDelay(1000)));
+
+        // act
+        assertThatThrownBy(() -> hnbRateService.getRateForEur()).isInstanceOf(HnbRateServiceException.class);
+        assertThatThrownBy(() -> hnbRateService.getRateForEur()).isInstanceOf(HnbRateServiceException.class);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> hnbRateService.getRateForEur())
+                .isInstanceOf(HnbRateServiceException.class)
+                .hasMessageContaining("open");
+        Duration rejectedCallDuration = Duration.ofNanos(System.nanoTime() - start);
+
+        // assert
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(rejectedCallDuration).isLessThan(Duration.ofMillis(100));
+        verify(2, getRequestedFor(WireMock.urlEqualTo("/tecajn")));
+        assertThat(meterRegistry.get("webshop.circuit.state").gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("webshop.circuit.calls").tag("outcome", "failure").timer().count())
+                .isEqualTo(2L);
+    }
+
+    @Test
+    void getRateTable_RateServiceFails_LastPersistedRateTableReturned() {
+        // arrange
+        stubFor(get(WireMock.urlEqualTo("/tecajn"))
+                .willReturn(ResponseDefinitionBuilder.responseDefinition()
+                        .withStatus(HttpStatus.INTERNAL_SERVER_ERROR.value())));
+        RateTable persistedRateTable = RateTable.builder(LocalDate.of(2022, 1, 27))
+                .add(new CurrencyRate("EUR", "978", 1, new BigDecimal("7.500000"),
+                        new BigDecimal("7.526928"), new BigDecimal("7.549509")))
+                .build();
+        Mockito.when(exchangeRateService.findRateTable(LocalDate.of(2022, 1, 28)))
+                .thenReturn(Optional.of(persistedRateTable));
+
+        // act
+        RateTable rateTable = hnbRateService.getRateTable();
+
+        // assert
+        assertThat(rateTable).isSameAs(persistedRateTable);
+    }
+}
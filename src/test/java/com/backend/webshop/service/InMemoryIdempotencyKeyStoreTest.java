@@ -0,0 +1,74 @@
+package com.backend.webshop.service;
+
+import com.backend.webshop.controller.response.OrderResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryIdempotencyKeyStoreTest {
+
+    private final Clock clock = Clock.fixed(Instant.parse("2022-01-27T10:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void save_MaxEntriesReached_LeastRecentlyUsedEvicted() {
+        // arrange
+        InMemoryIdempotencyKeyStore store = new InMemoryIdempotencyKeyStore(2, Duration.ofHours(1), clock);
+        store.save("first", createIdempotentResponse("1"));
+        store.save("second", createIdempotentResponse("2"));
+        store.find("first");
+
+        // act
+        store.save("third", createIdempotentResponse("3"));
+
+        // assert
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.find("first")).isPresent();
+        assertThat(store.find("second")).isEmpty();
+        assertThat(store.find("third").get().getOrderResponse().getOrderId()).isEqualTo("3");
+    }
+
+    @Test
+    void find_TimeToLiveElapsed_ResponseNotReturned() {
+        // arrange
+        InMemoryIdempotencyKeyStore store = new InMemoryIdempotencyKeyStore(10, Duration.ZERO, clock);
+        store.save("first", createIdempotentResponse("1"));
+        store.save("second", createIdempotentResponse("2"));
+
+        // act
+        store.evictExpired();
+
+        // assert
+        assertThat(store.size()).isZero();
+        assertThat(store.find("first")).isEmpty();
+    }
+
+    @Test
+    void reserve_KeyAlreadyReserved_PendingReservationReturned() {
+        // arrange
+        InMemoryIdempotencyKeyStore store = new InMemoryIdempotencyKeyStore(10, Duration.ofHours(1), clock);
+
+        // act
+        Optional<IdempotentResponse> firstReservation = store.reserve("key", "fingerprint");
+        Optional<IdempotentResponse> secondReservation = store.reserve("key", "fingerprint");
+
+        // assert
+        assertThat(firstReservation).isEmpty();
+        assertThat(secondReservation).hasValueSatisfying(reservation -> {
+            assertThat(reservation.getRequestFingerprint()).isEqualTo("fingerprint");
+            assertThat(reservation.isPending()).isTrue();
+        });
+    }
+
+    private IdempotentResponse createIdempotentResponse(String orderId) {
+        OrderResponse orderResponse = new OrderResponse();
+        orderResponse.setOrderId(orderId);
+
+        return new IdempotentResponse("fingerprint-" + orderId, orderResponse);
+    }
+}
@@ -0,0 +1,85 @@
+package com.backend.webshop.service;
+
+import com.backend.webshop.controller.response.OrderItemResponse;
+import com.backend.webshop.controller.response.OrderResponse;
+import com.backend.webshop.model.Order;
+import com.backend.webshop.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.idempotency.store=database")
+class JpaIdempotencyKeyStoreTest {
+
+    @Autowired
+    private IdempotencyKeyStore idempotencyKeyStore;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Test
+    void find_SavedResponse_ResponseReadBack() {
+        // arrange
+        OrderItemResponse orderItemResponse = new OrderItemResponse();
+        orderItemResponse.setProductId("product");
+        orderItemResponse.setQuantity(2L);
+        orderItemResponse.setTotalItemPriceHrk(new BigDecimal("299.98"));
+
+        OrderResponse orderResponse = new OrderResponse();
+        orderResponse.setOrderId("order");
+        orderResponse.setStatus(Order.Status.DRAFT);
+        orderResponse.setOrderItemList(List.of(orderItemResponse));
+
+        // act
+        idempotencyKeyStore.reserve("key", "fingerprint");
+        idempotencyKeyStore.save("key", new IdempotentResponse("fingerprint", orderResponse));
+        IdempotentResponse idempotentResponse = idempotencyKeyStore.find("key").orElseThrow();
+
+        // assert
+        assertThat(idempotencyKeyStore).isInstanceOf(JpaIdempotencyKeyStore.class);
+        assertThat(idempotentResponse.getRequestFingerprint()).isEqualTo("fingerprint");
+        assertThat(idempotentResponse.getOrderResponse()).isEqualTo(orderResponse);
+        assertThat(idempotencyKeyStore.find("unknown")).isEmpty();
+    }
+
+    @Test
+    void reserve_KeyAlreadyReserved_PendingReservationReturned() {
+        // arrange
+        idempotencyKeyStore.reserve("key", "fingerprint");
+
+        // act
+        Optional<IdempotentResponse> reservation = idempotencyKeyStore.reserve("key", "other fingerprint");
+
+        // assert
+        assertThat(reservation).hasValueSatisfying(stored -> {
+            assertThat(stored.getRequestFingerprint()).isEqualTo("fingerprint");
+            assertThat(stored.isPending()).isTrue();
+        });
+    }
+
+    @Test
+    void reserve_KeyReleased_ReservedAgain() {
+        // arrange
+        idempotencyKeyStore.reserve("key", "fingerprint");
+        idempotencyKeyStore.release("key");
+
+        // act
+        Optional<IdempotentResponse> reservation = idempotencyKeyStore.reserve("key", "fingerprint");
+
+        // assert
+        assertThat(reservation).isEmpty();
+        assertThat(idempotencyKeyRepository.count()).isEqualTo(1L);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        idempotencyKeyRepository.deleteAll();
+    }
+}
@@ -2,6 +2,7 @@ package com.backend.webshop.service;
 
 import com.backend.webshop.model.OrderItem;
 import com.backend.webshop.model.Product;
+import com.backend.webshop.model.RateTable;
 import com.backend.webshop.repository.CustomerRepository;
 import com.backend.webshop.repository.OrderItemRepository;
 import com.backend.webshop.repository.OrderRepository;
@@ -9,17 +10,26 @@ import com.backend.webshop.repository.ProductRepository;
 import com.backend.webshop.controller.request.OrderItemRequest;
 import com.backend.webshop.model.Customer;
 import com.backend.webshop.model.Order;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import javax.persistence.EntityManagerFactory;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 import static com.backend.webshop.model.Order.Status.DRAFT;
+import static com.backend.webshop.model.Order.Status.SUBMITTED;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -31,9 +41,21 @@ class OrderServiceTest {
     @Autowired
     private OrderItemRepository orderItemRepository;
 
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private static final Customer newCustomer = new Customer();;
     private static final Product productOne = new Product();
     private static final Product productTwo = new Product();
@@ -96,6 +118,164 @@ class OrderServiceTest {
                 .hasToString(productTwo.getId().toString());
     }
 
+    @Test
+    void checkIfAllProductsAvailable_OneProductUnknown_ReturnsFalse() {
+        // arrange
+        List<OrderItemRequest> orderItemRequestList = createListOfOrderItems();
+
+        OrderItemRequest unknownProduct = new OrderItemRequest();
+        unknownProduct.setProductId(UUID.randomUUID().toString());
+        unknownProduct.setQuantity(1L);
+        orderItemRequestList.add(unknownProduct);
+
+        // act
+        ProductLookup products = orderService.findProducts(orderItemRequestList);
+        Boolean allProductsAvailable = orderService.checkIfAllProductsAvailable(orderItemRequestList, products);
+
+        // assert
+        assertThat(products.find(orderItemRequestList.get(0))).isNotNull();
+        assertThat(products.find(orderItemRequestList.get(1))).isNotNull();
+        assertThat(products.find(unknownProduct)).isNull();
+        assertThat(allProductsAvailable).isFalse();
+    }
+
+    @Test
+    void saveOrderItemsToDb_LargeCart_ItemsInsertedInBatches() {
+        // arrange
+        List<Product> products = new ArrayList<>();
+        List<OrderItemRequest> orderItemRequestList = new ArrayList<>();
+
+        for (int i = 0; i < 120; i++) {
+            Product product = new Product();
+            product.setCode(String.format("9%09d", i));
+            product.setName("Screw " + i);
+            product.setPriceHrk(BigDecimal.valueOf(0.49));
+            product.setDescription("Bulk item");
+            product.setIsAvailable(true);
+            products.add(product);
+        }
+        productRepository.saveAll(products);
+
+        products.forEach(product -> {
+            OrderItemRequest orderItemRequest = new OrderItemRequest();
+            orderItemRequest.setProductId(product.getId().toString());
+            orderItemRequest.setQuantity(1L);
+            orderItemRequestList.add(orderItemRequest);
+        });
+
+        Order newOrder = new Order();
+        newOrder.setCustomer(newCustomer);
+        newOrder.setStatus(DRAFT);
+
+        orderRepository.save(newOrder);
+
+        ProductLookup productMap = orderService.findProducts(orderItemRequestList);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        // act
+        orderService.saveOrderItemsToDb(orderItemRequestList, productMap, newOrder);
+
+        // assert
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(120L);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3L);
+        assertThat(orderItemRepository.findOrderItemsByOrder_Id(newOrder.getId())).hasSize(120);
+
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void deleteDraftOrdersCreatedBefore_OldAndRecentOrders_OnlyOldDraftsDeleted() {
+        // arrange
+        Instant now = Instant.now();
+        Order oldDraft = createOrder(DRAFT, now.minus(Duration.ofDays(40)));
+        Order recentDraft = createOrder(DRAFT, now.minus(Duration.ofDays(1)));
+        Order oldSubmitted = createOrder(SUBMITTED, now.minus(Duration.ofDays(40)));
+
+        // act
+        int deletedOrders = orderService.deleteDraftOrdersCreatedBefore(now.minus(Duration.ofDays(30)));
+
+        // assert
+        assertThat(deletedOrders).isEqualTo(1);
+        assertThat(orderRepository.findById(oldDraft.getId())).isEmpty();
+        assertThat(orderItemRepository.findOrderItemsByOrder_Id(oldDraft.getId())).isEmpty();
+        assertThat(orderRepository.findById(recentDraft.getId())).isPresent();
+        assertThat(orderItemRepository.findOrderItemsByOrder_Id(recentDraft.getId())).hasSize(2);
+        assertThat(orderRepository.findById(oldSubmitted.getId())).isPresent();
+        assertThat(orderItemRepository.findOrderItemsByOrder_Id(oldSubmitted.getId())).hasSize(2);
+    }
+
+    @Test
+    void addOrderItems_DraftOrder_VersionIncremented() {
+        // arrange
+        Order order = new Order();
+        order.setCustomer(newCustomer);
+        order.setStatus(DRAFT);
+        orderRepository.save(order);
+        List<OrderItemRequest> orderItemRequestList = createListOfOrderItems();
+
+        // act
+        orderService.addOrderItems(order.getId().toString(), orderItemRequestList,
+                orderService.findProducts(orderItemRequestList));
+
+        // assert
+        assertThat(orderRepository.findById(order.getId()).orElseThrow().getVersion()).isEqualTo(1L);
+        assertThat(orderItemRepository.findOrderItemsByOrder_Id(order.getId())).hasSize(2);
+    }
+
+    @Test
+    void submitDraftOrder_StaleVersion_NotSubmitted() {
+        // arrange
+        Order order = new Order();
+        order.setCustomer(newCustomer);
+        order.setStatus(DRAFT);
+        orderRepository.save(order);
+
+        Order staleOrder = orderRepository.findById(order.getId()).orElseThrow();
+        staleOrder.setVersion(staleOrder.getVersion() - 1);
+
+        // act
+        boolean submitted = orderService.submitDraftOrder(staleOrder, RateTable.builder(LocalDate.now()).build());
+
+        // assert
+        assertThat(submitted).isFalse();
+        assertThat(orderRepository.findById(order.getId()).orElseThrow().getStatus()).isEqualTo(DRAFT);
+    }
+
+    @Test
+    void findById_CustomerLoadedBefore_ServedFromSecondLevelCache() {
+        // arrange
+        customerRepository.findById(newCustomer.getId());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        // act
+        Customer customer = customerRepository.findById(newCustomer.getId()).orElseThrow();
+
+        // assert
+        assertThat(customer.getEmail()).isEqualTo(newCustomer.getEmail());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics(Customer.CACHE_REGION).getHitCount()).isEqualTo(1L);
+        assertThat(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tags("region", Customer.CACHE_REGION, "result", "hit").functionCounter().count()).isEqualTo(1.0);
+    }
+
+    private Order createOrder(Order.Status status, Instant createdAt) {
+        Order order = new Order();
+        order.setCustomer(newCustomer);
+        order.setStatus(status);
+        order.setCreatedAt(createdAt);
+
+        orderRepository.save(order);
+        orderService.saveOrderItemsToDb(createListOfOrderItems(), order.getId().toString());
+
+        return order;
+    }
+
     public List<OrderItemRequest> createListOfOrderItems() {
         OrderItemRequest orderItemRequestOne = new OrderItemRequest();
         orderItemRequestOne.setProductId(productOne.getId().toString());
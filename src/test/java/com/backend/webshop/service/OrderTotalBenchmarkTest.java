@@ -0,0 +1,152 @@
+package com.backend.webshop.service;
+
+import com.backend.webshop.model.Customer;
+import com.backend.webshop.model.Order;
+import com.backend.webshop.model.OrderItem;
+import com.backend.webshop.model.Product;
+import com.backend.webshop.repository.CustomerRepository;
+import com.backend.webshop.repository.OrderItemRepository;
+import com.backend.webshop.repository.OrderRepository;
+import com.backend.webshop.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static com.backend.webshop.model.Order.Status.DRAFT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class OrderTotalBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int MEASURED_ITERATIONS = 50;
+
+    private static final Customer customer = new Customer();
+    private static final List<Product> products = new ArrayList<>();
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @BeforeAll
+    static void beforeAll(@Autowired CustomerRepository customerRepository,
+                          @Autowired ProductRepository productRepository,
+                          @Autowired OrderRepository orderRepository,
+                          @Autowired OrderItemRepository orderItemRepository) {
+        orderItemRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        customerRepository.deleteAll();
+
+        customer.setFirstName("Bench");
+        customer.setLastName("Mark");
+        customer.setEmail("bench.mark@gmail.com");
+        customerRepository.save(customer);
+
+        for (int i = 0; i < 1000; i++) {
+            Product product = new Product();
+            product.setCode(String.format("8%09d", i));
+            product.setName("Product " + i);
+            product.setPriceHrk(BigDecimal.valueOf(1000 + i, 2));
+            product.setDescription("Benchmark product");
+            product.setIsAvailable(true);
+            products.add(product);
+        }
+        productRepository.saveAll(products);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 1000})
+    void calculateTotalPriceInHrk_AggregateQueryVsInMemoryLoop(int orderLines) {
+        // arrange
+        String orderId = createOrder(orderLines);
+
+        // act
+        double inMemoryMicros = measure(() -> calculateTotalPriceInHrkInMemory(orderId));
+        double aggregateMicros = measure(() -> orderService.calculateTotalPriceInHrk(orderId));
+
+        log.info("Order total for {} lines: in-memory loop {} us/op, aggregate query {} us/op",
+                orderLines, String.format("%.1f", inMemoryMicros), String.format("%.1f", aggregateMicros));
+
+        // assert
+        assertThat(orderService.calculateTotalPriceInHrk(orderId))
+                .isEqualByComparingTo(calculateTotalPriceInHrkInMemory(orderId));
+    }
+
+    private String createOrder(int orderLines) {
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setStatus(DRAFT);
+        orderRepository.save(order);
+
+        List<OrderItem> orderItemList = new ArrayList<>();
+        for (int i = 0; i < orderLines; i++) {
+            OrderItem orderItem = new OrderItem();
+            orderItem.setOrder(order);
+            orderItem.setProduct(products.get(i));
+            orderItem.setQuantity((long) (i % 7 + 1));
+            orderItemList.add(orderItem);
+        }
+        orderItemRepository.saveAll(orderItemList);
+
+        return order.getId().toString();
+    }
+
+    // The loop calculateTotalPriceInHrk used before the aggregate query
+    private BigDecimal calculateTotalPriceInHrkInMemory(String orderId) {
+        BigDecimal totalPriceInHrk = BigDecimal.valueOf(0.00);
+
+        for (OrderItem item : orderItemRepository.findOrderItemsByOrder_Id(UUID.fromString(orderId))) {
+            totalPriceInHrk = totalPriceInHrk.add(orderService.calculateItemPriceInHrk(item));
+        }
+
+        return totalPriceInHrk.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private double measure(Supplier<BigDecimal> operation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            operation.get();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            operation.get();
+        }
+
+        return (System.nanoTime() - start) / 1_000.0 / MEASURED_ITERATIONS;
+    }
+
+    @AfterAll
+    public static void afterAll(@Autowired CustomerRepository customerRepository,
+                                @Autowired ProductRepository productRepository,
+                                @Autowired OrderRepository orderRepository,
+                                @Autowired OrderItemRepository orderItemRepository) {
+        orderItemRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        customerRepository.deleteAll();
+        products.clear();
+    }
+}
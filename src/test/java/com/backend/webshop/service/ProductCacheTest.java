@@ -0,0 +1,153 @@
+package com.backend.webshop.service;
+
+import com.backend.webshop.model.Product;
+import com.backend.webshop.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.EntityManager;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Clock clock = Clock.fixed(Instant.parse("2022-01-27T10:00:00Z"), ZoneOffset.UTC);
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+
+    private final Product productOne = createProduct("1111111111");
+    private final Product productTwo = createProduct("2222222222");
+
+    private ProductCache productCache;
+
+    @BeforeEach
+    public void beforeEach() {
+        when(productRepository.findAllById(any())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(0);
+
+            return Stream.of(productOne, productTwo)
+                    .filter(product -> ids.contains(product.getId()))
+                    .collect(Collectors.toList());
+        });
+        when(productRepository.findAllByCodeIn(any())).thenAnswer(invocation -> {
+            Collection<String> codes = invocation.getArgument(0);
+
+            return Stream.of(productOne, productTwo)
+                    .filter(product -> codes.contains(product.getCode()))
+                    .collect(Collectors.toList());
+        });
+
+        productCache = new ProductCache(productRepository, entityManager, meterRegistry, clock, 10, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void getAll_CachedAndMissingProducts_OnlyMissingLoaded() {
+        // arrange
+        productCache.get(productOne.getId());
+
+        // act
+        Map<UUID, Product> products = productCache.getAll(List.of(productOne.getId(), productTwo.getId()));
+        productCache.getAll(List.of(productOne.getId(), productTwo.getId()));
+
+        // assert
+        assertThat(products).containsOnlyKeys(productOne.getId(), productTwo.getId());
+        verify(productRepository).findAllById(Set.of(productOne.getId()));
+        verify(productRepository).findAllById(Set.of(productTwo.getId()));
+        verify(entityManager).detach(productOne);
+        verify(entityManager).detach(productTwo);
+        assertThat(meterRegistry.counter("webshop.product.cache", "result", "hit").count()).isEqualTo(3.0);
+        assertThat(meterRegistry.counter("webshop.product.cache", "result", "miss").count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("webshop.product.cache.hit.ratio").gauge().value()).isEqualTo(0.6);
+    }
+
+    @Test
+    void get_AfterInvalidate_ProductLoadedAgain() {
+        // arrange
+        productCache.get(productOne.getId());
+
+        // act
+        productCache.invalidate(productOne.getId());
+        productCache.get(productOne.getId());
+
+        // assert
+        verify(productRepository, times(2)).findAllById(Set.of(productOne.getId()));
+    }
+
+    @Test
+    void getAllByCode_CodesIndexed_ProductsServedWithoutQuery() {
+        // arrange
+        productCache.getAllByCode(List.of(productOne.getCode(), productTwo.getCode()));
+
+        // act
+        Map<String, Product> products = productCache.getAllByCode(List.of(productOne.getCode(), productTwo.getCode()));
+
+        // assert
+        assertThat(products).containsOnlyKeys(productOne.getCode(), productTwo.getCode());
+        verify(productRepository).findAllByCodeIn(Set.of(productOne.getCode(), productTwo.getCode()));
+        verify(productRepository, never()).findAllById(any());
+        verify(entityManager).detach(productOne);
+        verify(entityManager).detach(productTwo);
+    }
+
+    @Test
+    void getByCode_ProductRecodedAndInvalidated_OldCodeNotFound() {
+        // arrange
+        productCache.getByCode(productOne.getCode());
+        productOne.setCode("3333333333");
+
+        // act
+        productCache.invalidate(productOne.getId());
+        Optional<Product> product = productCache.getByCode("1111111111");
+
+        // assert
+        assertThat(product).isEmpty();
+        assertThat(productCache.getByCode("3333333333")).contains(productOne);
+    }
+
+    @Test
+    void getAll_MaxEntriesReached_EvictionCounted() {
+        // arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        productCache = new ProductCache(productRepository, entityManager, meterRegistry, clock, 1, Duration.ofMinutes(5));
+
+        // act
+        productCache.get(productOne.getId());
+        productCache.get(productTwo.getId());
+        productCache.get(productOne.getId());
+
+        // assert
+        verify(productRepository, times(2)).findAllById(Set.of(productOne.getId()));
+        assertThat(meterRegistry.get("webshop.product.cache.evictions").functionCounter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("webshop.product.cache.size").gauge().value()).isEqualTo(1.0);
+    }
+
+    private Product createProduct(String code) {
+        Product product = new Product();
+        product.setId(UUID.randomUUID());
+        product.setCode(code);
+        product.setName("Cached");
+        product.setIsAvailable(true);
+
+        return product;
+    }
+}
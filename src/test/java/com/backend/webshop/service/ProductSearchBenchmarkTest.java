@@ -0,0 +1,102 @@
+package com.backend.webshop.service;
+
+import com.backend.webshop.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+class ProductSearchBenchmarkTest {
+
+    private static final int PRODUCTS = 1_000_000;
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 1_000;
+
+    private static final String[] ADJECTIVES = {"steel", "cordless", "heavy", "compact", "galvanized", "precision",
+            "industrial", "foldable", "magnetic", "waterproof"};
+    private static final String[] NOUNS = {"hammer", "drill", "wrench", "screwdriver", "saw", "ladder", "nail",
+            "screw", "clamp", "chisel", "pliers", "sander", "grinder", "level", "toolbox"};
+
+    private static ProductSearchIndex productSearchIndex;
+
+    @BeforeAll
+    static void beforeAll() {
+        productSearchIndex = new ProductSearchIndex(new SimpleMeterRegistry());
+        Random random = new Random(42);
+
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        productSearchIndex.rebuild(IntStream.range(0, PRODUCTS).mapToObj(i -> createProduct(i, random)));
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        log.info("Indexed {} products in {} s, about {} MB of heap", PRODUCTS, String.format("%.1f", seconds),
+                (usedHeap() - heapBefore) / 1024 / 1024);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "code, 0000123456, false",
+            "rare two-term, precision chisel 42, false",
+            "common term, hammer, false",
+            "common term available only, hammer, true",
+            "two-term prefix, cordl dri, true",
+            "one-letter prefix, s, true"
+    })
+    void search_1MProducts(String shape, String query, boolean availableOnly) {
+        // act
+        double micros = measure(() -> productSearchIndex.search(query, availableOnly, 20));
+        ProductSearchIndex.Matches matches = productSearchIndex.search(query, availableOnly, 20);
+
+        log.info("Search '{}' ({}): {} matches, {} us/op", query, shape, matches.getTotal(),
+                String.format("%.1f", micros));
+
+        // assert
+        assertThat(matches.getTotal()).isPositive();
+    }
+
+    private double measure(Runnable operation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            operation.run();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            operation.run();
+        }
+
+        return (System.nanoTime() - start) / 1_000.0 / MEASURED_ITERATIONS;
+    }
+
+    private static Product createProduct(int i, Random random) {
+        Product product = new Product();
+        product.setId(new UUID(i, i));
+        product.setCode(String.format("%010d", i));
+        product.setName(ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + NOUNS[random.nextInt(NOUNS.length)]
+                + " " + random.nextInt(1000));
+        product.setDescription("Model " + random.nextInt(100_000) + " for " + NOUNS[random.nextInt(NOUNS.length)]
+                + " work, " + ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " finish");
+        product.setIsAvailable(random.nextInt(10) > 0);
+
+        return product;
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,103 @@
+package com.backend.webshop.service;
+
+import com.backend.webshop.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+
+    private final Product hammer = createProduct("1111111111", "Čekić", "Steel head, weighs 10 kg", true);
+    private final Product nail = createProduct("2222222222", "Nail", "Steel, 7cm long", true);
+    private final Product screw = createProduct("3333333333", "Screw", "Steel thread, out of stock", false);
+
+    private ProductSearchIndex productSearchIndex;
+
+    @BeforeEach
+    public void beforeEach() {
+        productSearchIndex = new ProductSearchIndex(new SimpleMeterRegistry());
+        productSearchIndex.rebuild(Stream.of(hammer, nail, screw));
+    }
+
+    @Test
+    void search_PrefixesOfTerms_AllTermsMustMatch() {
+        // act
+        ProductSearchIndex.Matches matches = productSearchIndex.search("cek 10", false, 10);
+
+        // assert
+        assertThat(matches.getProductIds()).containsExactly(hammer.getId());
+        assertThat(matches.getTotal()).isEqualTo(1);
+    }
+
+    @Test
+    void search_AvailableOnly_UnavailableProductsLeftOut() {
+        // act
+        ProductSearchIndex.Matches allMatches = productSearchIndex.search("3333", false, 10);
+        ProductSearchIndex.Matches availableMatches = productSearchIndex.search("3333", true, 10);
+
+        // assert
+        assertThat(allMatches.getProductIds()).containsExactly(screw.getId());
+        assertThat(availableMatches.getProductIds()).isEmpty();
+    }
+
+    @Test
+    void search_MoreMatchesThanLimit_TotalCountsAll() {
+        // act
+        ProductSearchIndex.Matches matches = productSearchIndex.search("STEEL", false, 2);
+
+        // assert
+        assertThat(matches.getProductIds()).containsExactly(hammer.getId(), nail.getId());
+        assertThat(matches.getTotal()).isEqualTo(3);
+    }
+
+    @Test
+    void search_AfterPutAndRemove_IndexUpdated() {
+        // arrange
+        nail.setName("Rivet");
+
+        // act
+        productSearchIndex.put(nail);
+        productSearchIndex.remove(hammer.getId());
+
+        // assert
+        assertThat(productSearchIndex.search("nail", false, 10).getProductIds()).isEmpty();
+        assertThat(productSearchIndex.search("rivet", false, 10).getProductIds()).containsExactly(nail.getId());
+        assertThat(productSearchIndex.search("cekic", false, 10).getProductIds()).isEmpty();
+        assertThat(productSearchIndex.size()).isEqualTo(2);
+    }
+
+    @Test
+    void rebuild_WritesDuringScan_KeptInRebuiltIndex() {
+        // arrange
+        Product drill = createProduct("4444444444", "Drill", "Cordless", true);
+
+        // act
+        productSearchIndex.rebuild(Stream.of(hammer, nail).peek(product -> {
+            if (product == nail) {
+                productSearchIndex.put(drill);
+                productSearchIndex.remove(hammer.getId());
+            }
+        }));
+
+        // assert
+        assertThat(productSearchIndex.search("drill", false, 10).getProductIds()).containsExactly(drill.getId());
+        assertThat(productSearchIndex.search("cekic", false, 10).getProductIds()).isEmpty();
+        assertThat(productSearchIndex.size()).isEqualTo(2);
+    }
+
+    private Product createProduct(String code, String name, String description, boolean isAvailable) {
+        Product product = new Product();
+        product.setId(UUID.randomUUID());
+        product.setCode(code);
+        product.setName(name);
+        product.setDescription(description);
+        product.setIsAvailable(isAvailable);
+
+        return product;
+    }
+}
@@ -0,0 +1,62 @@
+package com.backend.webshop.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void execute_CallInFlightThrowsError_WaitingCallerReleasedWithError() throws Exception {
+        // arrange
+        CountDownLatch callStarted = new CountDownLatch(1);
+        CountDownLatch waiterStarted = new CountDownLatch(1);
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", () -> {
+            callStarted.countDown();
+            await(waiterStarted);
+            // Gives the waiter time to join the call in flight
+            sleep();
+            throw new StackOverflowError();
+        }));
+        callStarted.await();
+
+        // act
+        CompletableFuture<String> waiter = CompletableFuture.supplyAsync(() -> {
+            waiterStarted.countDown();
+            return singleFlight.execute("key", () -> "not called");
+        });
+
+        // assert
+        assertThatThrownBy(() -> waiter.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(StackOverflowError.class);
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(StackOverflowError.class);
+        assertThat(singleFlight.execute("key", () -> "next call")).isEqualTo("next call");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}